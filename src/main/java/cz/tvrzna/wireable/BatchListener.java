@@ -0,0 +1,271 @@
+package cz.tvrzna.wireable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.MethodInvoker;
+
+/**
+ * The {@link OnEvent} method, that receives events in batches. First param of
+ * every event is buffered and buffer is delivered as single {@link List}, when
+ * it reaches {@link OnEvent#batchSize()} or after {@link OnEvent#batchDelay()}
+ * since its first event. Full batch is delivered on firing thread, delayed
+ * batch is handed off to event executor of container. Timer thread never waits
+ * for event executor, if the executor does not accept the batch immediately,
+ * hand-off is retried after next delay.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class BatchListener extends EventDispatcher.Listener
+{
+	private static final MethodType KEY_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private final int batchSize;
+	private final long batchDelay;
+	private final boolean coalesce;
+	private final String coalesceKey;
+	private final Predicate<EventDispatcher.Task> executor;
+	private final Map<Class<?>, MethodHandle> keyGetters = new ConcurrentHashMap<>();
+	private List<Object> buffer = new ArrayList<>();
+	private Map<Object, Object> coalesced = new LinkedHashMap<>();
+	private ScheduledFuture<?> flush;
+	private long generation;
+
+	/**
+	 * Instantiates a new batch listener.
+	 *
+	 * @param method
+	 *          the method
+	 * @param invoker
+	 *          the invoker
+	 * @param instance
+	 *          the instance, or <code>null</code>
+	 * @param supplier
+	 *          the supplier of instance
+	 * @param mailbox
+	 *          the mailbox of class
+	 * @param onEvent
+	 *          the annotation defining batch
+	 * @param executor
+	 *          the executor of delayed batches, that returns
+	 *          <code>false</code> instead of waiting, if it cannot accept the
+	 *          batch
+	 */
+	BatchListener(Method method, MethodInvoker<Object> invoker, Object instance, Supplier<Object> supplier, Mailbox mailbox, OnEvent onEvent,
+			Predicate<EventDispatcher.Task> executor)
+	{
+		super(method, invoker, instance, supplier, mailbox);
+		if (method.getParameterCount() != 1 || !method.getParameterTypes()[0].isAssignableFrom(List.class))
+		{
+			throw new IllegalStateException("Batch event method " + method.getDeclaringClass().getName() + "." + method.getName() + " must have one List parameter");
+		}
+		this.batchSize = onEvent.batchSize();
+		this.batchDelay = onEvent.batchDelay();
+		this.coalesceKey = onEvent.coalesceKey();
+		this.coalesce = onEvent.coalesce() || !coalesceKey.isEmpty();
+		this.executor = executor;
+	}
+
+	@Override
+	Object handle(Object[] params) throws Exception
+	{
+		Object payload = params.length > 0 ? params[0] : null;
+		Object key = coalesce ? getKey(payload) : null;
+		List<Object> batch = null;
+		synchronized (this)
+		{
+			int size;
+			if (coalesce)
+			{
+				coalesced.put(key, payload);
+				size = coalesced.size();
+			}
+			else
+			{
+				buffer.add(payload);
+				size = buffer.size();
+			}
+			if (batchSize > 0 && size >= batchSize)
+			{
+				batch = take();
+			}
+			else if (flush == null && batchDelay > 0)
+			{
+				long scheduled = generation;
+				flush = WireableTimer.schedule(() -> handOff(scheduled), batchDelay);
+			}
+		}
+		return batch != null ? invoke(new Object[]
+		{ batch }) : null;
+	}
+
+	/**
+	 * Hands off the delayed flush to event executor. It is called by timer
+	 * thread, so it does not wait for event executor. If the executor does not
+	 * accept the flush, it is scheduled again, unless the batch was delivered
+	 * meanwhile.
+	 *
+	 * @param scheduled
+	 *          the generation of batch, that scheduled the flush
+	 */
+	private void handOff(long scheduled)
+	{
+		if (!executor.test(this::flush))
+		{
+			synchronized (this)
+			{
+				if (generation == scheduled)
+				{
+					flush = WireableTimer.schedule(() -> handOff(scheduled), batchDelay);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Delivers buffered events, if there are any.
+	 *
+	 * @throws WireableException
+	 *           the wireable exception
+	 */
+	void flush() throws WireableException
+	{
+		List<Object> batch;
+		synchronized (this)
+		{
+			batch = buffer.isEmpty() && coalesced.isEmpty() ? null : take();
+		}
+		if (batch != null)
+		{
+			try
+			{
+				invoke(new Object[]
+				{ batch });
+			}
+			catch (Exception e)
+			{
+				throw new WireableException("Could not fire method ".concat(getName()), e);
+			}
+		}
+	}
+
+	/**
+	 * Takes buffered events and cancels scheduled flush.
+	 *
+	 * @return the batch
+	 */
+	private List<Object> take()
+	{
+		List<Object> batch;
+		if (coalesce)
+		{
+			batch = new ArrayList<>(coalesced.values());
+			coalesced = new LinkedHashMap<>();
+		}
+		else
+		{
+			batch = buffer;
+			buffer = new ArrayList<>();
+		}
+		generation++;
+		if (flush != null)
+		{
+			flush.cancel(false);
+			flush = null;
+		}
+		return batch;
+	}
+
+	/**
+	 * Gets the key of coalesced event. Event is its own key, unless
+	 * {@link OnEvent#coalesceKey()} is defined.
+	 *
+	 * @param payload
+	 *          the first param of event
+	 * @return the key
+	 * @throws Exception
+	 *           the exception thrown by getter
+	 */
+	private Object getKey(Object payload) throws Exception
+	{
+		if (coalesceKey.isEmpty() || payload == null)
+		{
+			return payload;
+		}
+		MethodHandle getter = keyGetters.computeIfAbsent(payload.getClass(), this::findKeyGetter);
+		try
+		{
+			return (Object) getter.invokeExact(payload);
+		}
+		catch (Throwable t)
+		{
+			throw BeanAccessor.rethrow(t);
+		}
+	}
+
+	/**
+	 * Finds the getter of {@link OnEvent#coalesceKey()} in class of event. The
+	 * key is read by no-arg method with the same name, its
+	 * <code>get</code>/<code>is</code> getter or field with the same name in
+	 * this order.
+	 *
+	 * @param clazz
+	 *          the class of event
+	 * @return the getter
+	 * @throws IllegalStateException
+	 *           if class does not have the key
+	 */
+	private MethodHandle findKeyGetter(Class<?> clazz)
+	{
+		String suffix = Character.toUpperCase(coalesceKey.charAt(0)) + coalesceKey.substring(1);
+		try
+		{
+			for (String name : new String[]
+			{ coalesceKey, "get" + suffix, "is" + suffix })
+			{
+				for (Class<?> type = clazz; type != null; type = type.getSuperclass())
+				{
+					for (Method method : type.getDeclaredMethods())
+					{
+						if (method.getName().equals(name) && method.getParameterCount() == 0 && method.getReturnType() != void.class && !Modifier.isStatic(method.getModifiers()))
+						{
+							method.setAccessible(true);
+							return MethodHandles.lookup().unreflect(method).asType(KEY_TYPE);
+						}
+					}
+				}
+			}
+			for (Class<?> type = clazz; type != null; type = type.getSuperclass())
+			{
+				for (Field field : type.getDeclaredFields())
+				{
+					if (field.getName().equals(coalesceKey) && !Modifier.isStatic(field.getModifiers()))
+					{
+						field.setAccessible(true);
+						return MethodHandles.lookup().unreflectGetter(field).asType(KEY_TYPE);
+					}
+				}
+			}
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		throw new IllegalStateException("Coalesce key " + coalesceKey + " of " + getName() + " was not found in " + clazz.getName());
+	}
+}
@@ -0,0 +1,505 @@
+package cz.tvrzna.wireable;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wired;
+import cz.tvrzna.wireable.helpers.MethodInvoker;
+import cz.tvrzna.wireable.helpers.WireableFactory;
+
+/**
+ * The accessor of one class, that creates its instances, wires its
+ * {@link Wired} fields and invokes its methods. Instances are created via
+ * {@link Wired} constructor, the only declared constructor or no-arg
+ * constructor in this order. Generated
+ * {@link WireableFactory} is used if it exists, otherwise constructor, fields
+ * and methods are converted into {@link MethodHandle}s once and reused by all
+ * following calls. Accessors are cached per class in {@link ClassValue}.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class BeanAccessor
+{
+	private static final ClassValue<BeanAccessor> ACCESSORS = new ClassValue<BeanAccessor>()
+	{
+		@Override
+		protected BeanAccessor computeValue(Class<?> type)
+		{
+			return new BeanAccessor(type);
+		}
+	};
+	private static final Object[] NO_ARGS = new Object[0];
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	private static final MethodHandle FIELD_SET = findFieldSet();
+
+	private final Class<?> clazz;
+	private final WireableFactory<Object> factory;
+	private final Constructor<?> wiredConstructor;
+	private final Map<Method, MethodInvoker<Object>> invokers = new ConcurrentHashMap<>();
+	private volatile MethodHandle constructor;
+	private volatile WiredField[] wiredFields;
+	private volatile Map<Class<? extends Annotation>, LifecycleMethod[]> lifecycleMethods;
+
+	/**
+	 * Instantiates a new bean accessor.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 */
+	private BeanAccessor(Class<?> clazz)
+	{
+		this.clazz = clazz;
+		this.factory = findFactory(clazz);
+		this.wiredConstructor = findWiredConstructor(clazz);
+	}
+
+	/**
+	 * Gets the accessor of defined class.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the bean accessor
+	 */
+	static BeanAccessor of(Class<?> clazz)
+	{
+		return ACCESSORS.get(clazz);
+	}
+
+	/**
+	 * Gets the parameter types of constructor, whose arguments need to be passed
+	 * to {@link #newInstance(Object...)}.
+	 *
+	 * @return the parameter types, empty for no-arg constructor
+	 */
+	Class<?>[] getParameterTypes()
+	{
+		return wiredConstructor != null ? wiredConstructor.getParameterTypes() : new Class<?>[0];
+	}
+
+	/**
+	 * Checks if class has any {@link Wired} field, so its instances need to be
+	 * wired after creation.
+	 *
+	 * @return true, if class has wired fields
+	 * @throws IllegalAccessException
+	 *           the illegal access exception
+	 */
+	boolean hasWiredFields() throws IllegalAccessException
+	{
+		return getWiredFields().length > 0;
+	}
+
+	/**
+	 * Creates new instance via no-arg constructor.
+	 *
+	 * @return the new instance
+	 * @throws Exception
+	 *           the exception
+	 */
+	Object newInstance() throws Exception
+	{
+		return newInstance(NO_ARGS);
+	}
+
+	/**
+	 * Creates new instance via constructor, that accepts defined arguments.
+	 *
+	 * @param args
+	 *          the arguments in order of {@link #getParameterTypes()}
+	 * @return the new instance
+	 * @throws Exception
+	 *           the exception
+	 */
+	Object newInstance(Object... args) throws Exception
+	{
+		if (factory != null && wiredConstructor == null)
+		{
+			return factory.newInstance();
+		}
+		MethodHandle handle = constructor;
+		if (handle == null)
+		{
+			Constructor<?> constr = wiredConstructor != null ? wiredConstructor : clazz.getDeclaredConstructor();
+			constr.setAccessible(true);
+			int count = constr.getParameterCount();
+			handle = MethodHandles.lookup().unreflectConstructor(constr).asType(MethodType.genericMethodType(count)).asSpreader(Object[].class, count);
+			constructor = handle;
+		}
+		try
+		{
+			return (Object) handle.invokeExact(args);
+		}
+		catch (Throwable t)
+		{
+			throw rethrow(t);
+		}
+	}
+
+	/**
+	 * Wires all {@link Wired} fields of instance with instances from container.
+	 *
+	 * @param instance
+	 *          the instance
+	 * @param container
+	 *          the container
+	 * @throws Exception
+	 *           the exception
+	 */
+	void wire(Object instance, WireableContainer container) throws Exception
+	{
+		if (factory != null)
+		{
+			factory.wire(instance, container);
+			return;
+		}
+		for (WiredField field : getWiredFields())
+		{
+			try
+			{
+				field.setter.invokeExact(instance, (Object) container.getWiredInstance(field.type));
+			}
+			catch (Throwable t)
+			{
+				throw rethrow(t);
+			}
+		}
+	}
+
+	/**
+	 * Creates the injection plan of {@link Wired} fields with their target
+	 * instances resolved from container.
+	 *
+	 * @param container
+	 *          the container
+	 * @return the injection plan
+	 * @throws IllegalAccessException
+	 *           the illegal access exception
+	 */
+	InjectionPlan createPlan(WireableContainer container) throws IllegalAccessException
+	{
+		WiredField[] fields = getWiredFields();
+		MethodHandle[] setters = new MethodHandle[fields.length];
+		Object[] targets = new Object[fields.length];
+		for (int i = 0; i < fields.length; i++)
+		{
+			setters[i] = fields[i].setter;
+			targets[i] = container.getWiredInstance(fields[i].type);
+		}
+		return new InjectionPlan(setters, targets);
+	}
+
+	/**
+	 * Gets the {@link OnCreate} or {@link OnStartup} methods of the class and
+	 * its superclasses ordered by their priority and order. Methods of both
+	 * phases are resolved together on first request.
+	 *
+	 * @param phase
+	 *          the annotation of phase
+	 * @return the lifecycle methods
+	 */
+	LifecycleMethod[] getLifecycleMethods(Class<? extends Annotation> phase)
+	{
+		Map<Class<? extends Annotation>, LifecycleMethod[]> methods = lifecycleMethods;
+		if (methods == null)
+		{
+			List<LifecycleMethod> onCreate = new ArrayList<>();
+			List<LifecycleMethod> onStartup = new ArrayList<>();
+			Class<?> type = clazz;
+			while (type != null && type != Object.class)
+			{
+				for (Method method : type.getDeclaredMethods())
+				{
+					OnCreate create = method.getAnnotation(OnCreate.class);
+					if (create != null)
+					{
+						onCreate.add(new LifecycleMethod(type.getName() + "." + method.getName(), create.priority(), create.order(), 0, getInvoker(method)));
+					}
+					OnStartup startup = method.getAnnotation(OnStartup.class);
+					if (startup != null)
+					{
+						onStartup.add(new LifecycleMethod(type.getName() + "." + method.getName(), startup.priority(), startup.order(), startup.timeout(), getInvoker(method)));
+					}
+				}
+				type = type.getSuperclass();
+			}
+			Collections.sort(onCreate);
+			Collections.sort(onStartup);
+
+			methods = new HashMap<>();
+			methods.put(OnCreate.class, onCreate.toArray(new LifecycleMethod[onCreate.size()]));
+			methods.put(OnStartup.class, onStartup.toArray(new LifecycleMethod[onStartup.size()]));
+			lifecycleMethods = methods;
+		}
+		return methods.get(phase);
+	}
+
+	/**
+	 * Gets the invoker of method, that is created on first request.
+	 *
+	 * @param method
+	 *          the method declared by the class or its superclass
+	 * @return the invoker
+	 */
+	MethodInvoker<Object> getInvoker(Method method)
+	{
+		return invokers.computeIfAbsent(method, this::createInvoker);
+	}
+
+	/**
+	 * Creates the invoker of method from generated factory or as
+	 * {@link MethodHandle} spreading array of arguments.
+	 *
+	 * @param method
+	 *          the method
+	 * @return the method invoker
+	 */
+	private MethodInvoker<Object> createInvoker(Method method)
+	{
+		if (factory != null)
+		{
+			MethodInvoker<Object> invoker = factory.invoker(Reflections.getSignature(method));
+			if (invoker != null)
+			{
+				return invoker;
+			}
+		}
+
+		int count = method.getParameterCount();
+		MethodHandle handle;
+		try
+		{
+			method.setAccessible(true);
+			handle = MethodHandles.lookup().unreflect(method);
+		}
+		catch (IllegalAccessException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		if (Modifier.isStatic(method.getModifiers()))
+		{
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		MethodHandle spreader = handle.asType(MethodType.genericMethodType(count + 1)).asSpreader(Object[].class, count);
+		return (instance, args) -> {
+			try
+			{
+				return (Object) spreader.invokeExact(instance, args);
+			}
+			catch (Throwable t)
+			{
+				throw rethrow(t);
+			}
+		};
+	}
+
+	/**
+	 * Gets the {@link Wired} fields, that are resolved on first request.
+	 *
+	 * @return the wired fields
+	 * @throws IllegalAccessException
+	 *           the illegal access exception
+	 */
+	private WiredField[] getWiredFields() throws IllegalAccessException
+	{
+		WiredField[] fields = wiredFields;
+		if (fields == null)
+		{
+			Field[] annotated = Reflections.findAnnotatedFields(clazz, Wired.class);
+			fields = new WiredField[annotated.length];
+			for (int i = 0; i < annotated.length; i++)
+			{
+				fields[i] = new WiredField(annotated[i]);
+			}
+			wiredFields = fields;
+		}
+		return fields;
+	}
+
+	/**
+	 * Find constructor used for injection. It is constructor annotated by
+	 * {@link Wired}, or the only declared constructor, if it has any parameters.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the constructor, or <code>null</code> if no-arg constructor is used
+	 */
+	private static Constructor<?> findWiredConstructor(Class<?> clazz)
+	{
+		Constructor<?> result = null;
+		for (Constructor<?> constr : clazz.getDeclaredConstructors())
+		{
+			if (constr.isAnnotationPresent(Wired.class))
+			{
+				if (result != null)
+				{
+					throw new IllegalStateException("Multiple @Wired constructors in ".concat(clazz.getName()));
+				}
+				result = constr;
+			}
+		}
+		Constructor<?>[] constructors = clazz.getDeclaredConstructors();
+		if (result == null && constructors.length == 1 && constructors[0].getParameterCount() > 0)
+		{
+			result = constructors[0];
+		}
+		return result;
+	}
+
+	/**
+	 * Find generated {@link WireableFactory} of defined class.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @return the factory, or <code>null</code> if it was not generated
+	 */
+	@SuppressWarnings("unchecked")
+	private static WireableFactory<Object> findFactory(Class<?> clazz)
+	{
+		try
+		{
+			Class<?> factoryClass = Class.forName(clazz.getName().concat(WireableFactory.SUFFIX), true, clazz.getClassLoader());
+			return (WireableFactory<Object>) factoryClass.getDeclaredConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException | LinkageError e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Find handle of {@link Field#set(Object, Object)}, that is used for fields,
+	 * which could not be converted into setter handle.
+	 *
+	 * @return the method handle
+	 */
+	private static MethodHandle findFieldSet()
+	{
+		try
+		{
+			return MethodHandles.lookup().findVirtual(Field.class, "set", SETTER_TYPE);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/**
+	 * Rethrows throwable thrown by method handle as exception.
+	 *
+	 * @param t
+	 *          the throwable
+	 * @return the exception to be thrown
+	 */
+	static Exception rethrow(Throwable t)
+	{
+		if (t instanceof Error)
+		{
+			throw (Error) t;
+		}
+		if (t instanceof Exception)
+		{
+			return (Exception) t;
+		}
+		return new IllegalStateException(t);
+	}
+
+	/**
+	 * The immutable plan of wiring instances of one class, that holds setters of
+	 * all {@link Wired} fields with their resolved target instances.
+	 */
+	static final class InjectionPlan
+	{
+		private final MethodHandle[] setters;
+		private final Object[] targets;
+
+		/**
+		 * Instantiates a new injection plan.
+		 *
+		 * @param setters
+		 *          the setters
+		 * @param targets
+		 *          the targets
+		 */
+		private InjectionPlan(MethodHandle[] setters, Object[] targets)
+		{
+			this.setters = setters;
+			this.targets = targets;
+		}
+
+		/**
+		 * Wires all fields of instance.
+		 *
+		 * @param instance
+		 *          the instance
+		 * @throws Exception
+		 *           the exception
+		 */
+		void wire(Object instance) throws Exception
+		{
+			for (int i = 0; i < setters.length; i++)
+			{
+				try
+				{
+					setters[i].invokeExact(instance, targets[i]);
+				}
+				catch (Throwable t)
+				{
+					throw rethrow(t);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The {@link Wired} field with its setter.
+	 */
+	private static class WiredField
+	{
+		private final Class<?> type;
+		private final MethodHandle setter;
+
+		/**
+		 * Instantiates a new wired field.
+		 *
+		 * @param field
+		 *          the field
+		 * @throws IllegalAccessException
+		 *           the illegal access exception
+		 */
+		private WiredField(Field field) throws IllegalAccessException
+		{
+			this.type = field.getType();
+			field.setAccessible(true);
+			MethodHandle handle;
+			try
+			{
+				handle = MethodHandles.lookup().unreflectSetter(field);
+			}
+			catch (IllegalAccessException e)
+			{
+				handle = MethodHandles.insertArguments(FIELD_SET, 0, field);
+			}
+			if (Modifier.isStatic(field.getModifiers()) && handle.type().parameterCount() == 1)
+			{
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			this.setter = handle.asType(SETTER_TYPE);
+		}
+	}
+}
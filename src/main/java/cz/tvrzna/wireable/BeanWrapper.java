@@ -0,0 +1,100 @@
+package cz.tvrzna.wireable;
+
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+
+/**
+ * The wrapper of loaded class in context of container. Instance is set once it
+ * is created, so classes created by their {@link Wired} constructors and lazy
+ * classes could be registered before their instances exist.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class BeanWrapper
+{
+	private volatile Object instance;
+	private final boolean wireable;
+	private final PriorityLevel priorityLevel;
+	private final boolean lazy;
+
+	/**
+	 * Instantiates a new bean wrapper.
+	 *
+	 * @param wireable
+	 *          true, if class is {@link Wireable}
+	 * @param priorityLevel
+	 *          the priority level
+	 * @param lazy
+	 *          true, if class is created on first lookup
+	 */
+	BeanWrapper(boolean wireable, PriorityLevel priorityLevel, boolean lazy)
+	{
+		this.wireable = wireable;
+		this.priorityLevel = priorityLevel;
+		this.lazy = lazy;
+	}
+
+	/**
+	 * Gets the instance.
+	 *
+	 * @return the instance, or <code>null</code> if it is not created yet
+	 */
+	Object getInstance()
+	{
+		return instance;
+	}
+
+	/**
+	 * Sets the instance, once it is created. Instance of lazy class is set after
+	 * it is wired and initialized.
+	 *
+	 * @param instance
+	 *          the new instance
+	 */
+	void setInstance(Object instance)
+	{
+		this.instance = instance;
+	}
+
+	/**
+	 * Checks if is wireable.
+	 *
+	 * @return true, if is wireable
+	 */
+	boolean isWireable()
+	{
+		return wireable;
+	}
+
+	/**
+	 * Gets the priority level.
+	 *
+	 * @return the priority level
+	 */
+	PriorityLevel getPriorityLevel()
+	{
+		return priorityLevel;
+	}
+
+	/**
+	 * Checks if is lazy.
+	 *
+	 * @return true, if is lazy
+	 */
+	boolean isLazy()
+	{
+		return lazy;
+	}
+
+	/**
+	 * Checks if instance was already created.
+	 *
+	 * @return true, if is created
+	 */
+	boolean isCreated()
+	{
+		return instance != null;
+	}
+}
@@ -0,0 +1,239 @@
+package cz.tvrzna.wireable;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The utility class that reads class-level annotations directly from class file
+ * bytecode, so the class does not need to be loaded by class loader. Only
+ * constant pool and <code>RuntimeVisibleAnnotations</code> attribute are
+ * parsed, everything else is skipped.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class ClassFileReader
+{
+	private static final int MAGIC = 0xCAFEBABE;
+	private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+	/**
+	 * Instantiates a new class file reader.
+	 */
+	private ClassFileReader()
+	{
+	}
+
+	/**
+	 * Read descriptors of all runtime visible annotations of class, e.g.
+	 * <code>Lcz/tvrzna/wireable/annotations/Wireable;</code>.
+	 *
+	 * @param is
+	 *          the input stream of class file
+	 * @return the set of annotation descriptors
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred or class file is
+	 *           malformed.
+	 */
+	static Set<String> readAnnotations(InputStream is) throws IOException
+	{
+		DataInputStream in = new DataInputStream(is);
+		if (in.readInt() != MAGIC)
+		{
+			throw new IOException("Not a class file");
+		}
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+
+		String[] utf8 = readConstantPool(in);
+
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+		in.readUnsignedShort();
+		skipFully(in, 2 * in.readUnsignedShort());
+		skipMembers(in);
+		skipMembers(in);
+
+		Set<String> annotations = new HashSet<>();
+		int attributeCount = in.readUnsignedShort();
+		for (int i = 0; i < attributeCount; i++)
+		{
+			String name = utf8[in.readUnsignedShort()];
+			int length = in.readInt();
+			if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name))
+			{
+				int annotationCount = in.readUnsignedShort();
+				for (int j = 0; j < annotationCount; j++)
+				{
+					annotations.add(readAnnotation(in, utf8));
+				}
+			}
+			else
+			{
+				skipFully(in, length);
+			}
+		}
+		return annotations;
+	}
+
+	/**
+	 * Reads the constant pool and keeps only its UTF-8 entries.
+	 *
+	 * @param in
+	 *          the in
+	 * @return the UTF-8 entries indexed by constant pool index
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static String[] readConstantPool(DataInputStream in) throws IOException
+	{
+		int count = in.readUnsignedShort();
+		String[] utf8 = new String[count];
+		for (int i = 1; i < count; i++)
+		{
+			int tag = in.readUnsignedByte();
+			switch (tag)
+			{
+				case 1:
+					utf8[i] = in.readUTF();
+					break;
+				case 7:
+				case 8:
+				case 16:
+				case 19:
+				case 20:
+					skipFully(in, 2);
+					break;
+				case 15:
+					skipFully(in, 3);
+					break;
+				case 3:
+				case 4:
+				case 9:
+				case 10:
+				case 11:
+				case 12:
+				case 17:
+				case 18:
+					skipFully(in, 4);
+					break;
+				case 5:
+				case 6:
+					skipFully(in, 8);
+					i++;
+					break;
+				default:
+					throw new IOException("Unknown constant pool tag " + tag);
+			}
+		}
+		return utf8;
+	}
+
+	/**
+	 * Skips fields or methods section.
+	 *
+	 * @param in
+	 *          the in
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void skipMembers(DataInputStream in) throws IOException
+	{
+		int count = in.readUnsignedShort();
+		for (int i = 0; i < count; i++)
+		{
+			skipFully(in, 6);
+			int attributeCount = in.readUnsignedShort();
+			for (int j = 0; j < attributeCount; j++)
+			{
+				skipFully(in, 2);
+				skipFully(in, in.readInt());
+			}
+		}
+	}
+
+	/**
+	 * Reads the annotation and returns its type descriptor.
+	 *
+	 * @param in
+	 *          the in
+	 * @param utf8
+	 *          the UTF-8 entries of constant pool
+	 * @return the annotation descriptor
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static String readAnnotation(DataInputStream in, String[] utf8) throws IOException
+	{
+		String type = utf8[in.readUnsignedShort()];
+		int pairs = in.readUnsignedShort();
+		for (int i = 0; i < pairs; i++)
+		{
+			skipFully(in, 2);
+			skipElementValue(in, utf8);
+		}
+		return type;
+	}
+
+	/**
+	 * Skips the element value of annotation.
+	 *
+	 * @param in
+	 *          the in
+	 * @param utf8
+	 *          the UTF-8 entries of constant pool
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException
+	{
+		int tag = in.readUnsignedByte();
+		switch (tag)
+		{
+			case 'e':
+				skipFully(in, 4);
+				break;
+			case '@':
+				readAnnotation(in, utf8);
+				break;
+			case '[':
+				int count = in.readUnsignedShort();
+				for (int i = 0; i < count; i++)
+				{
+					skipElementValue(in, utf8);
+				}
+				break;
+			default:
+				skipFully(in, 2);
+				break;
+		}
+	}
+
+	/**
+	 * Skips exactly defined count of bytes.
+	 *
+	 * @param in
+	 *          the in
+	 * @param count
+	 *          the count
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void skipFully(DataInputStream in, int count) throws IOException
+	{
+		int skipped = 0;
+		while (skipped < count)
+		{
+			int n = in.skipBytes(count - skipped);
+			if (n <= 0)
+			{
+				in.readByte();
+				n = 1;
+			}
+			skipped += n;
+		}
+	}
+}
@@ -0,0 +1,799 @@
+package cz.tvrzna.wireable;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarInputStream;
+
+import cz.tvrzna.wireable.helpers.ScanStatistics;
+
+/**
+ * The scanner of classes in package and its subpackages. If any annotation is
+ * defined, class files are pre-filtered by {@link ClassFileReader} and only
+ * classes annotated by at least one of them are loaded. Since the scanning
+ * could run in parallel, the instance is not reusable for concurrent scans.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class ClassScanner
+{
+	private static final int JAR_THRESHOLD = 256;
+
+	private final Set<String> descriptors = new TreeSet<>();
+	private final AtomicInteger scannedClasses = new AtomicInteger();
+	private final AtomicInteger loadedClasses = new AtomicInteger();
+	private final int parallelism;
+	private ScanCache cache;
+	private Set<String> skippedRoots = Collections.emptySet();
+
+	/**
+	 * Instantiates a new class scanner, that scans on calling thread.
+	 *
+	 * @param annotations
+	 *          the annotations, that class needs to have to be loaded
+	 */
+	@SafeVarargs
+	ClassScanner(Class<? extends Annotation>... annotations)
+	{
+		this(1, annotations);
+	}
+
+	/**
+	 * Instantiates a new class scanner. If <code>parallelism</code> is greater
+	 * than 1, directories and jar entries are scanned in parallel in
+	 * {@link ForkJoinPool} with defined parallelism. Found classes are always
+	 * sorted by name and loaded on calling thread, so the result does not depend
+	 * on the mode.
+	 *
+	 * @param parallelism
+	 *          the parallelism
+	 * @param annotations
+	 *          the annotations, that class needs to have to be loaded
+	 */
+	@SafeVarargs
+	ClassScanner(int parallelism, Class<? extends Annotation>... annotations)
+	{
+		this.parallelism = parallelism;
+		for (Class<? extends Annotation> annotation : annotations)
+		{
+			descriptors.add("L" + annotation.getName().replace('.', '/') + ";");
+		}
+	}
+
+	/**
+	 * Sets the cache of scan results. If cache contains entry with matching
+	 * fingerprint, the directory walk or jar enumeration is skipped.
+	 *
+	 * @param cache
+	 *          the new cache
+	 */
+	void setCache(ScanCache cache)
+	{
+		this.cache = cache;
+	}
+
+	/**
+	 * Sets the classpath roots, that are not scanned, e.g. roots with
+	 * {@link WireableIndex}. Root is URL of package without path of package.
+	 *
+	 * @param skippedRoots
+	 *          the new skipped roots
+	 */
+	void setSkippedRoots(Set<String> skippedRoots)
+	{
+		this.skippedRoots = skippedRoots;
+	}
+
+	/**
+	 * Scan packages for all available classes in any level. Packages are looked
+	 * up in all classpath roots, each jar file is opened only once, even if it
+	 * contains more of defined packages. In parallel mode roots are scanned
+	 * concurrently.
+	 *
+	 * @param packageNames
+	 *          the package names
+	 * @return the class[] sorted by name
+	 * @throws ClassNotFoundException
+	 *           the class not found exception
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	Class<?>[] scan(String... packageNames) throws ClassNotFoundException, IOException
+	{
+		List<String> classNames = findClassNames(packageNames);
+
+		Class<?>[] classes = new Class<?>[classNames.size()];
+		for (int i = 0; i < classes.length; i++)
+		{
+			classes[i] = Class.forName(classNames.get(i));
+		}
+		loadedClasses.addAndGet(classes.length);
+		return classes;
+	}
+
+	/**
+	 * Find names of all available classes in packages in any level, without
+	 * loading them.
+	 *
+	 * @param packageNames
+	 *          the package names
+	 * @return the list of class names sorted by name without duplicates
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	List<String> findClassNames(String... packageNames) throws IOException
+	{
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		Map<File, String> directories = new TreeMap<>();
+		Map<String, JarRootTask> jars = new TreeMap<>();
+
+		for (String packageName : packageNames)
+		{
+			String path = packageName.replace(".", "/");
+			Enumeration<URL> resources = classLoader.getResources(path);
+			if (!resources.hasMoreElements())
+			{
+				throw new IOException("Could not find package " + packageName);
+			}
+			while (resources.hasMoreElements())
+			{
+				URL url = resources.nextElement();
+				if (skippedRoots.contains(getRoot(url, path)))
+				{
+					continue;
+				}
+				String decoded = URLDecoder.decode(url.getPath(), StandardCharsets.UTF_8.name());
+				if ("file".equals(url.getProtocol()))
+				{
+					directories.put(new File(decoded), packageName);
+				}
+				else
+				{
+					String[] archive = splitArchivePath(decoded);
+					jars.computeIfAbsent(archive[0] + "!/" + archive[1], k -> new JarRootTask(new File(archive[0]), archive[1])).paths.add(path);
+				}
+			}
+		}
+
+		List<RootTask> tasks = new ArrayList<>();
+		for (Map.Entry<File, String> directory : directories.entrySet())
+		{
+			if (!isNested(directory.getKey(), directories.keySet()))
+			{
+				tasks.add(new DirectoryRootTask(directory.getKey(), directory.getValue()));
+			}
+		}
+		tasks.addAll(jars.values());
+
+		return new ArrayList<>(new TreeSet<>(invoke(new ScanTask(tasks))));
+	}
+
+	/**
+	 * Gets the classpath root of package URL.
+	 *
+	 * @param url
+	 *          the URL of package
+	 * @param path
+	 *          the path of package
+	 * @return the root, or whole URL if it does not end by path of package
+	 */
+	private static String getRoot(URL url, String path)
+	{
+		String result = url.toString();
+		if (result.endsWith("/"))
+		{
+			result = result.substring(0, result.length() - 1);
+		}
+		if (result.endsWith(path))
+		{
+			result = result.substring(0, result.length() - path.length());
+		}
+		return result;
+	}
+
+	/**
+	 * Splits path of jar URL into path of archive file and path of nested
+	 * archive entry, in which the package is located. Both
+	 * <code>file:/app.jar!/BOOT-INF/lib/lib.jar!/package</code> and
+	 * <code>nested:/app.jar/!BOOT-INF/lib/lib.jar!/package</code> forms are
+	 * supported. Nested entry is either a jar file or a directory, e.g.
+	 * <code>BOOT-INF/classes</code>.
+	 *
+	 * @param path
+	 *          the decoded path of jar URL
+	 * @return the array of archive file path and nested entry, that is empty if
+	 *         package is located directly in the archive
+	 * @throws IOException
+	 *           Signals that path is not supported.
+	 */
+	static String[] splitArchivePath(String path) throws IOException
+	{
+		String archive;
+		String rest;
+		if (path.startsWith("nested:"))
+		{
+			int index = path.indexOf("/!");
+			if (index < 0)
+			{
+				throw new IOException("Unsupported nested path " + path);
+			}
+			archive = path.substring(7, index);
+			rest = path.substring(index + 2);
+		}
+		else
+		{
+			int index = path.indexOf("!/");
+			if (index < 0)
+			{
+				throw new IOException("Unsupported archive path " + path);
+			}
+			archive = path.substring(path.indexOf(':') + 1, index);
+			rest = path.substring(index + 2);
+		}
+
+		int index = rest.indexOf("!/");
+		String nested = index < 0 ? "" : rest.substring(0, index);
+		if (nested.endsWith("/"))
+		{
+			nested = nested.substring(0, nested.length() - 1);
+		}
+		if (index >= 0 && rest.indexOf("!/", index + 2) >= 0)
+		{
+			throw new IOException("Only one level of nested archives is supported " + path);
+		}
+		return new String[]
+		{ archive, nested };
+	}
+
+	/**
+	 * Checks if directory is nested in any other of scanned directories, so it
+	 * does not need to be scanned separately.
+	 *
+	 * @param directory
+	 *          the directory
+	 * @param directories
+	 *          the scanned directories
+	 * @return true, if is nested
+	 */
+	private static boolean isNested(File directory, Set<File> directories)
+	{
+		for (File parent = directory.getParentFile(); parent != null; parent = parent.getParentFile())
+		{
+			if (directories.contains(parent))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Invokes the task on calling thread, or in new {@link ForkJoinPool} if
+	 * parallel mode is enabled.
+	 *
+	 * @param task
+	 *          the task
+	 * @return the result of task
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private List<String> invoke(RecursiveTask<List<String>> task) throws IOException
+	{
+		try
+		{
+			if (parallelism > 1)
+			{
+				ForkJoinPool pool = new ForkJoinPool(parallelism);
+				try
+				{
+					return pool.invoke(task);
+				}
+				finally
+				{
+					pool.shutdown();
+				}
+			}
+			return task.invoke();
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Gets the statistics of all scans done by this scanner.
+	 *
+	 * @return the statistics
+	 */
+	ScanStatistics getStatistics()
+	{
+		return new ScanStatistics(scannedClasses.get(), loadedClasses.get());
+	}
+
+	/**
+	 * The task, that finds classes in directory of currently developed project.
+	 * Subdirectories are forked as separate tasks in parallel mode. Last
+	 * modification times of directories and found class files are collected
+	 * for {@link ScanCache}.
+	 */
+	private class DirectoryTask extends RecursiveTask<List<String>>
+	{
+		private static final long serialVersionUID = 4133502404164418216L;
+
+		private final File directory;
+		private final String packageName;
+		private final Map<String, Long> stamps;
+
+		/**
+		 * Instantiates a new directory task.
+		 *
+		 * @param directory
+		 *          the directory
+		 * @param packageName
+		 *          the package name
+		 * @param stamps
+		 *          the last modification times by paths
+		 */
+		private DirectoryTask(File directory, String packageName, Map<String, Long> stamps)
+		{
+			this.directory = directory;
+			this.packageName = packageName;
+			this.stamps = stamps;
+		}
+
+		@Override
+		protected List<String> compute()
+		{
+			List<String> classNames = new ArrayList<>();
+			List<DirectoryTask> subtasks = new ArrayList<>();
+			stamps.put(directory.getPath(), directory.lastModified());
+			File[] files = directory.listFiles();
+			if (files == null)
+			{
+				throw new UncheckedIOException(new IOException("Could not list directory " + directory));
+			}
+			for (File file : files)
+			{
+				if (file.isDirectory())
+				{
+					if (!file.getName().contains("."))
+					{
+						DirectoryTask subtask = new DirectoryTask(file, packageName + "." + file.getName(), stamps);
+						if (parallelism > 1)
+						{
+							subtask.fork();
+							subtasks.add(subtask);
+						}
+						else
+						{
+							classNames.addAll(subtask.compute());
+						}
+					}
+				}
+				else if (file.getName().endsWith(".class"))
+				{
+					scannedClasses.incrementAndGet();
+					long lastModified = file.lastModified();
+					if (isAnnotated(file))
+					{
+						stamps.put(file.getPath(), lastModified);
+						classNames.add(packageName + '.' + file.getName().substring(0, file.getName().length() - 6));
+					}
+				}
+			}
+			for (DirectoryTask subtask : subtasks)
+			{
+				classNames.addAll(subtask.join());
+			}
+			return classNames;
+		}
+
+		/**
+		 * Checks if class file is annotated.
+		 *
+		 * @param file
+		 *          the file
+		 * @return true, if is annotated
+		 */
+		private boolean isAnnotated(File file)
+		{
+			try
+			{
+				if (descriptors.isEmpty())
+				{
+					return true;
+				}
+				try (InputStream in = new FileInputStream(file))
+				{
+					return ClassScanner.this.isAnnotated(in);
+				}
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * The task, that finds classes in range of <code>jarFile</code> entries.
+	 * Range larger than {@link #JAR_THRESHOLD} is split into halves in parallel
+	 * mode.
+	 */
+	private class JarTask extends RecursiveTask<List<String>>
+	{
+		private static final long serialVersionUID = -2745862339962592335L;
+
+		private final JarFile jarFile;
+		private final String prefix;
+		private final List<JarEntry> entries;
+		private final int from;
+		private final int to;
+
+		/**
+		 * Instantiates a new jar task.
+		 *
+		 * @param jarFile
+		 *          the jar file
+		 * @param prefix
+		 *          the prefix of entries, that is not part of class name
+		 * @param entries
+		 *          the class entries of jar file
+		 * @param from
+		 *          the from index, inclusive
+		 * @param to
+		 *          the to index, exclusive
+		 */
+		private JarTask(JarFile jarFile, String prefix, List<JarEntry> entries, int from, int to)
+		{
+			this.jarFile = jarFile;
+			this.prefix = prefix;
+			this.entries = entries;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected List<String> compute()
+		{
+			if (parallelism > 1 && to - from > JAR_THRESHOLD)
+			{
+				int middle = (from + to) >>> 1;
+				JarTask second = new JarTask(jarFile, prefix, entries, middle, to);
+				second.fork();
+				List<String> classNames = new JarTask(jarFile, prefix, entries, from, middle).compute();
+				classNames.addAll(second.join());
+				return classNames;
+			}
+
+			List<String> classNames = new ArrayList<>();
+			for (int i = from; i < to; i++)
+			{
+				JarEntry entry = entries.get(i);
+				scannedClasses.incrementAndGet();
+				try (InputStream in = jarFile.getInputStream(entry))
+				{
+					if (descriptors.isEmpty() || isAnnotated(in))
+					{
+						classNames.add(toClassName(entry.getName().substring(prefix.length())));
+					}
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+			}
+			return classNames;
+		}
+	}
+
+	/**
+	 * The task, that scans all roots, concurrently in parallel mode.
+	 */
+	private class ScanTask extends RecursiveTask<List<String>>
+	{
+		private static final long serialVersionUID = -6424396420870398316L;
+
+		private final List<RootTask> roots;
+
+		/**
+		 * Instantiates a new scan task.
+		 *
+		 * @param roots
+		 *          the roots
+		 */
+		private ScanTask(List<RootTask> roots)
+		{
+			this.roots = roots;
+		}
+
+		@Override
+		protected List<String> compute()
+		{
+			List<String> classNames = new ArrayList<>();
+			if (parallelism > 1)
+			{
+				invokeAll(roots);
+			}
+			for (RootTask root : roots)
+			{
+				classNames.addAll(parallelism > 1 ? root.join() : root.invoke());
+			}
+			return classNames;
+		}
+	}
+
+	/**
+	 * The task, that scans one classpath root. If cache is set and contains
+	 * entry with matching fingerprint of root, the root is not scanned at all.
+	 */
+	private abstract class RootTask extends RecursiveTask<List<String>>
+	{
+		private static final long serialVersionUID = 2939071604426498624L;
+
+		protected final File root;
+
+		/**
+		 * Instantiates a new root task.
+		 *
+		 * @param root
+		 *          the root
+		 */
+		private RootTask(File root)
+		{
+			this.root = root;
+		}
+
+		@Override
+		protected List<String> compute()
+		{
+			try
+			{
+				String key = root.getAbsolutePath() + ':' + getKey() + ':' + descriptors;
+				List<String> classNames = cache != null ? cache.get(key, root) : null;
+				if (classNames == null)
+				{
+					Map<String, Long> stamps = new ConcurrentHashMap<>();
+					classNames = scanRoot(stamps);
+					if (cache != null)
+					{
+						cache.put(key, root, stamps, classNames);
+					}
+				}
+				return classNames;
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Gets the key, that identifies the scanned content of root.
+		 *
+		 * @return the key
+		 */
+		protected abstract String getKey();
+
+		/**
+		 * Scans the root.
+		 *
+		 * @param stamps
+		 *          the last modification times of scanned paths, that are
+		 *          collected for {@link ScanCache}
+		 * @return the found class names
+		 * @throws IOException
+		 *           Signals that an I/O exception has occurred.
+		 */
+		protected abstract List<String> scanRoot(Map<String, Long> stamps) throws IOException;
+	}
+
+	/**
+	 * The root task of package directory.
+	 */
+	private class DirectoryRootTask extends RootTask
+	{
+		private static final long serialVersionUID = -1581890580968596575L;
+
+		private final String packageName;
+
+		/**
+		 * Instantiates a new directory root task.
+		 *
+		 * @param directory
+		 *          the directory of package
+		 * @param packageName
+		 *          the package name
+		 */
+		private DirectoryRootTask(File directory, String packageName)
+		{
+			super(directory);
+			this.packageName = packageName;
+		}
+
+		@Override
+		protected String getKey()
+		{
+			return packageName;
+		}
+
+		@Override
+		protected List<String> scanRoot(Map<String, Long> stamps)
+		{
+			return new DirectoryTask(root, packageName, stamps).invoke();
+		}
+	}
+
+	/**
+	 * The root task of jar file, that could contain more packages. Packages
+	 * could be located in nested directory of jar, e.g.
+	 * <code>BOOT-INF/classes</code>, or in nested jar, e.g.
+	 * <code>BOOT-INF/lib/lib.jar</code>, that is read through the stream of
+	 * outer jar without extraction.
+	 */
+	private class JarRootTask extends RootTask
+	{
+		private static final long serialVersionUID = 5848927512640405009L;
+
+		private final String nested;
+		private final Set<String> paths = new TreeSet<>();
+
+		/**
+		 * Instantiates a new jar root task.
+		 *
+		 * @param jar
+		 *          the jar
+		 * @param nested
+		 *          the nested entry, empty if packages are located directly in
+		 *          jar
+		 */
+		private JarRootTask(File jar, String nested)
+		{
+			super(jar);
+			this.nested = nested;
+		}
+
+		@Override
+		protected String getKey()
+		{
+			return nested + paths;
+		}
+
+		@Override
+		protected List<String> scanRoot(Map<String, Long> stamps) throws IOException
+		{
+			try (JarFile jarFile = new JarFile(root))
+			{
+				if (nested.endsWith(".jar"))
+				{
+					return scanNestedJar(jarFile);
+				}
+
+				String prefix = nested.isEmpty() ? "" : nested + "/";
+				List<JarEntry> entries = new ArrayList<>();
+				Enumeration<JarEntry> jarEntries = jarFile.entries();
+				while (jarEntries.hasMoreElements())
+				{
+					JarEntry entry = jarEntries.nextElement();
+					if (entry.getName().startsWith(prefix) && entry.getName().endsWith(".class") && isInPackage(entry.getName().substring(prefix.length())))
+					{
+						entries.add(entry);
+					}
+				}
+				return new JarTask(jarFile, prefix, entries, 0, entries.size()).invoke();
+			}
+		}
+
+		/**
+		 * Scans the nested jar sequentially through the stream of outer jar.
+		 *
+		 * @param jarFile
+		 *          the outer jar file
+		 * @return the found class names
+		 * @throws IOException
+		 *           Signals that an I/O exception has occurred.
+		 */
+		private List<String> scanNestedJar(JarFile jarFile) throws IOException
+		{
+			JarEntry nestedEntry = jarFile.getJarEntry(nested);
+			if (nestedEntry == null)
+			{
+				throw new IOException("Could not find " + nested + " in " + root);
+			}
+
+			List<String> classNames = new ArrayList<>();
+			try (JarInputStream in = new JarInputStream(jarFile.getInputStream(nestedEntry)))
+			{
+				JarEntry entry;
+				while ((entry = in.getNextJarEntry()) != null)
+				{
+					if (entry.getName().endsWith(".class") && isInPackage(entry.getName()))
+					{
+						scannedClasses.incrementAndGet();
+						if (descriptors.isEmpty() || isAnnotated(in))
+						{
+							classNames.add(toClassName(entry.getName()));
+						}
+					}
+				}
+			}
+			return classNames;
+		}
+
+		/**
+		 * Checks if entry is in any of scanned packages.
+		 *
+		 * @param name
+		 *          the name of entry relative to nested directory
+		 * @return true, if is in package
+		 */
+		private boolean isInPackage(String name)
+		{
+			for (String path : paths)
+			{
+				if (name.startsWith(path + "/"))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Converts the class file path to class name.
+	 *
+	 * @param path
+	 *          the path of class file
+	 * @return the class name
+	 */
+	private static String toClassName(String path)
+	{
+		return path.replace("/", ".").substring(0, path.length() - 6);
+	}
+
+	/**
+	 * Checks if class file has any of required annotations. Stream is not closed
+	 * afterwards.
+	 *
+	 * @param is
+	 *          the input stream of class file
+	 * @return true, if is annotated
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private boolean isAnnotated(InputStream is) throws IOException
+	{
+		for (String annotation : ClassFileReader.readAnnotations(new BufferedInputStream(is)))
+		{
+			if (descriptors.contains(annotation))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
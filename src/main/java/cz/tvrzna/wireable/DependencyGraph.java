@@ -0,0 +1,329 @@
+package cz.tvrzna.wireable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import cz.tvrzna.wireable.annotations.Wired;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+
+/**
+ * The dependency graph of loaded classes, whose edges are defined by
+ * {@link Wired} fields. Classes depending on each other in cycle are collapsed
+ * into one node, that is handled sequentially. Nodes are split into levels, so
+ * every node depends only on nodes of lower levels. Levels are executed one
+ * after another, nodes of one level are executed together by
+ * {@link PriorityLevel}.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class DependencyGraph
+{
+	private final Map<Class<?>, List<Class<?>>> dependencies = new HashMap<>();
+	private final Function<Class<?>, PriorityLevel> priorities;
+	private final Comparator<Class<?>> order;
+	private final List<List<Node>> levels = new ArrayList<>();
+	private final List<List<Class<?>>> cycles = new ArrayList<>();
+
+	private final Map<Class<?>, Integer> indexes = new HashMap<>();
+	private final Map<Class<?>, Integer> lowLinks = new HashMap<>();
+	private final Map<Class<?>, Node> nodes = new HashMap<>();
+	private final Deque<Class<?>> stack = new ArrayDeque<>();
+
+	/**
+	 * Instantiates a new dependency graph.
+	 *
+	 * @param classes
+	 *          the classes
+	 * @param dependencies
+	 *          the function returning classes, that defined class depends on
+	 * @param priorities
+	 *          the function returning priority level of class
+	 */
+	DependencyGraph(Collection<Class<?>> classes, Function<Class<?>, Collection<Class<?>>> dependencies, Function<Class<?>, PriorityLevel> priorities)
+	{
+		this.priorities = priorities;
+		this.order = Comparator.comparing(priorities).thenComparing(Class::getName);
+		for (Class<?> clazz : classes)
+		{
+			List<Class<?>> deps = new ArrayList<>();
+			for (Class<?> dep : dependencies.apply(clazz))
+			{
+				if (!dep.equals(clazz) && classes.contains(dep) && !deps.contains(dep))
+				{
+					deps.add(dep);
+				}
+			}
+			this.dependencies.put(clazz, deps);
+		}
+
+		List<Class<?>> sorted = new ArrayList<>(classes);
+		sorted.sort(order);
+		for (Class<?> clazz : sorted)
+		{
+			if (!indexes.containsKey(clazz))
+			{
+				connect(clazz);
+			}
+		}
+		for (List<Node> level : levels)
+		{
+			level.sort(Comparator.comparing((Node n) -> n.priority).thenComparing(n -> n.classes.get(0).getName()));
+		}
+	}
+
+	/**
+	 * Finds strongly connected component of defined class by Tarjan's algorithm.
+	 * Components are completed after all their dependencies, so their level
+	 * could be computed immediately.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 */
+	private void connect(Class<?> clazz)
+	{
+		int index = indexes.size();
+		indexes.put(clazz, index);
+		lowLinks.put(clazz, index);
+		stack.push(clazz);
+
+		for (Class<?> dep : dependencies.get(clazz))
+		{
+			if (!indexes.containsKey(dep))
+			{
+				connect(dep);
+				lowLinks.put(clazz, Math.min(lowLinks.get(clazz), lowLinks.get(dep)));
+			}
+			else if (!nodes.containsKey(dep))
+			{
+				lowLinks.put(clazz, Math.min(lowLinks.get(clazz), indexes.get(dep)));
+			}
+		}
+
+		if (lowLinks.get(clazz).equals(index))
+		{
+			List<Class<?>> component = new ArrayList<>();
+			Class<?> member;
+			do
+			{
+				member = stack.pop();
+				component.add(member);
+			}
+			while (!member.equals(clazz));
+			component.sort(order);
+
+			Node node = new Node(component, priorities.apply(component.get(0)));
+			int level = 0;
+			for (Class<?> c : component)
+			{
+				nodes.put(c, node);
+			}
+			for (Class<?> c : component)
+			{
+				for (Class<?> dep : dependencies.get(c))
+				{
+					if (nodes.get(dep) != node)
+					{
+						level = Math.max(level, nodes.get(dep).level + 1);
+					}
+				}
+			}
+			node.level = level;
+			while (levels.size() <= level)
+			{
+				levels.add(new ArrayList<>());
+			}
+			levels.get(level).add(node);
+			if (component.size() > 1)
+			{
+				cycles.add(Collections.unmodifiableList(component));
+			}
+		}
+	}
+
+	/**
+	 * Gets the classes, that depend on each other in cycle.
+	 *
+	 * @return the cycles
+	 */
+	List<List<Class<?>>> getCycles()
+	{
+		return Collections.unmodifiableList(cycles);
+	}
+
+	/**
+	 * Gets the classes ordered by levels, as they are executed in sequential
+	 * mode.
+	 *
+	 * @return the ordered classes
+	 */
+	List<Class<?>> getOrder()
+	{
+		List<Class<?>> result = new ArrayList<>();
+		for (List<Node> level : levels)
+		{
+			for (Node node : level)
+			{
+				result.addAll(node.classes);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Executes action for every class. If <code>executor</code> is
+	 * <code>null</code>, all classes are executed on calling thread in order
+	 * returned by {@link #getOrder()}. Otherwise nodes of the same level and
+	 * {@link PriorityLevel} are executed by <code>executor</code> concurrently
+	 * and the next group starts after all of them have finished. If any action
+	 * fails, no following group is started.
+	 *
+	 * @param executor
+	 *          the executor
+	 * @param action
+	 *          the action
+	 * @throws Exception
+	 *           the exception thrown by action
+	 */
+	void execute(Executor executor, Action action) throws Exception
+	{
+		for (List<Node> level : levels)
+		{
+			int from = 0;
+			while (from < level.size())
+			{
+				int to = from;
+				while (to < level.size() && level.get(to).priority == level.get(from).priority)
+				{
+					to++;
+				}
+				execute(executor, level.subList(from, to), action);
+				from = to;
+			}
+		}
+	}
+
+	/**
+	 * Executes action for all classes of defined nodes and waits for them.
+	 *
+	 * @param executor
+	 *          the executor
+	 * @param group
+	 *          the nodes
+	 * @param action
+	 *          the action
+	 * @throws Exception
+	 *           the exception thrown by action
+	 */
+	private void execute(Executor executor, List<Node> group, Action action) throws Exception
+	{
+		if (executor == null || group.size() == 1)
+		{
+			for (Node node : group)
+			{
+				node.execute(action);
+			}
+			return;
+		}
+
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[group.size()];
+		for (int i = 0; i < futures.length; i++)
+		{
+			Node node = group.get(i);
+			futures[i] = CompletableFuture.runAsync(() -> {
+				try
+				{
+					node.execute(action);
+				}
+				catch (Exception e)
+				{
+					throw new CompletionException(e);
+				}
+			}, executor);
+		}
+		try
+		{
+			CompletableFuture.allOf(futures).join();
+		}
+		catch (CompletionException e)
+		{
+			if (e.getCause() instanceof Exception)
+			{
+				throw (Exception) e.getCause();
+			}
+			if (e.getCause() instanceof Error)
+			{
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * The action executed for one class.
+	 */
+	@FunctionalInterface
+	interface Action
+	{
+		/**
+		 * Runs the action.
+		 *
+		 * @param clazz
+		 *          the clazz
+		 * @throws Exception
+		 *           the exception
+		 */
+		void run(Class<?> clazz) throws Exception;
+	}
+
+	/**
+	 * The node of graph, that contains one class or all classes of one cycle.
+	 */
+	private static class Node
+	{
+		private final List<Class<?>> classes;
+		private final PriorityLevel priority;
+		private int level;
+
+		/**
+		 * Instantiates a new node.
+		 *
+		 * @param classes
+		 *          the classes
+		 * @param priority
+		 *          the priority
+		 */
+		private Node(List<Class<?>> classes, PriorityLevel priority)
+		{
+			this.classes = classes;
+			this.priority = priority;
+		}
+
+		/**
+		 * Executes action for all classes of node sequentially.
+		 *
+		 * @param action
+		 *          the action
+		 * @throws Exception
+		 *           the exception
+		 */
+		private void execute(Action action) throws Exception
+		{
+			for (Class<?> clazz : classes)
+			{
+				action.run(clazz);
+			}
+		}
+	}
+}
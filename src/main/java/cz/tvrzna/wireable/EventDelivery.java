@@ -0,0 +1,34 @@
+package cz.tvrzna.wireable;
+
+import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
+
+/**
+ * The delivery of asynchronous events of one event name, that replaces the
+ * event executor for this event.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+interface EventDelivery
+{
+	/**
+	 * Publishes the event.
+	 *
+	 * @param params
+	 *          the params
+	 * @param handler
+	 *          the handler of exception, or <code>null</code>
+	 */
+	void publish(Object[] params, WireableExceptionHandler handler);
+
+	/**
+	 * Stops the delivery after published events are handled.
+	 *
+	 * @param timeout
+	 *          the maximum time to wait in milliseconds
+	 * @return true, if all events were handled
+	 * @throws InterruptedException
+	 *           the interrupted exception
+	 */
+	boolean stop(long timeout) throws InterruptedException;
+}
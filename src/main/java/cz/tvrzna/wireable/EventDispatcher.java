@@ -0,0 +1,336 @@
+package cz.tvrzna.wireable;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.EventResult;
+import cz.tvrzna.wireable.helpers.MethodInvoker;
+import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
+
+/**
+ * The immutable dispatcher of one event, that is created by init. It holds all
+ * {@link OnEvent} methods of the event with their instances and invokers, so
+ * firing of event does not look up anything.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class EventDispatcher
+{
+	private final Listener[] listeners;
+	private EventDelivery delivery;
+
+	/**
+	 * Instantiates a new event dispatcher.
+	 *
+	 * @param listeners
+	 *          the listeners in their order
+	 */
+	EventDispatcher(List<Listener> listeners)
+	{
+		this.listeners = listeners.toArray(new Listener[0]);
+	}
+
+	/**
+	 * Invokes all listeners with defined params.
+	 *
+	 * @param params
+	 *          the params
+	 * @throws WireableException
+	 *           the wireable exception
+	 */
+	void dispatch(Object[] params) throws WireableException
+	{
+		for (Listener listener : listeners)
+		{
+			try
+			{
+				listener.handle(params);
+			}
+			catch (Exception e)
+			{
+				throw new WireableException("Could not fire method ".concat(listener.name), e);
+			}
+		}
+	}
+
+	/**
+	 * Invokes all listeners concurrently by executor and collects their results
+	 * in order of listeners. Listener, that does not finish before timeout, has
+	 * result with {@link TimeoutException}. Listener rejected or dropped by
+	 * executor has result with {@link RejectedExecutionException}.
+	 *
+	 * @param params
+	 *          the params
+	 * @param executor
+	 *          the executor
+	 * @param timeout
+	 *          the timeout in milliseconds, 0 for no timeout
+	 * @return the future of results
+	 */
+	CompletableFuture<List<EventResult>> gather(Object[] params, Executor executor, long timeout)
+	{
+		List<CompletableFuture<EventResult>> futures = new ArrayList<>(listeners.length);
+		for (Listener listener : listeners)
+		{
+			GatherTask task = new GatherTask(listener, params);
+			try
+			{
+				executor.execute(task);
+			}
+			catch (RuntimeException e)
+			{
+				task.result.complete(new EventResult(listener.name, null, e));
+			}
+			futures.add(task.result);
+		}
+
+		CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+		if (timeout > 0 && !all.isDone())
+		{
+			ScheduledFuture<?> timer = WireableTimer.schedule(() -> {
+				for (int i = 0; i < futures.size(); i++)
+				{
+					futures.get(i).complete(new EventResult(listeners[i].name, null, new TimeoutException(listeners[i].name + " timed out after " + timeout + " ms")));
+				}
+			}, timeout);
+			all.whenComplete((v, e) -> timer.cancel(false));
+		}
+		return all.thenApply(v -> {
+			List<EventResult> results = new ArrayList<>(futures.size());
+			for (CompletableFuture<EventResult> future : futures)
+			{
+				results.add(future.join());
+			}
+			return results;
+		});
+	}
+
+	/**
+	 * Gets the listeners.
+	 *
+	 * @return the listeners
+	 */
+	Listener[] getListeners()
+	{
+		return listeners;
+	}
+
+	/**
+	 * Gets the delivery of asynchronous events.
+	 *
+	 * @return the delivery, or <code>null</code> if event uses event executor
+	 */
+	EventDelivery getDelivery()
+	{
+		return delivery;
+	}
+
+	/**
+	 * Sets the delivery of asynchronous events. It is set by init, before the
+	 * dispatcher is published.
+	 *
+	 * @param delivery
+	 *          the new delivery
+	 */
+	void setDelivery(EventDelivery delivery)
+	{
+		this.delivery = delivery;
+	}
+
+	/**
+	 * Posts event with defined params into mailboxes of all listeners.
+	 *
+	 * @param params
+	 *          the params
+	 * @param handler
+	 *          the handler of exception, or <code>null</code>
+	 */
+	void post(Object[] params, WireableExceptionHandler handler)
+	{
+		for (Listener listener : listeners)
+		{
+			listener.mailbox.post(listener, params, handler);
+		}
+	}
+
+	/**
+	 * The firing of event, that is executed by event executor.
+	 */
+	@FunctionalInterface
+	interface Task
+	{
+		/**
+		 * Runs the task.
+		 *
+		 * @throws WireableException
+		 *           the wireable exception
+		 */
+		void run() throws WireableException;
+	}
+
+	/**
+	 * The invocation of one listener by {@link #gather(Object[], Executor, long)},
+	 * that completes its result even if it is dropped by event executor.
+	 */
+	private static final class GatherTask implements EventExecutors.DroppableTask
+	{
+		private final Listener listener;
+		private final Object[] params;
+		private final CompletableFuture<EventResult> result = new CompletableFuture<>();
+
+		/**
+		 * Instantiates a new gather task.
+		 *
+		 * @param listener
+		 *          the listener
+		 * @param params
+		 *          the params
+		 */
+		private GatherTask(Listener listener, Object[] params)
+		{
+			this.listener = listener;
+			this.params = params;
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				result.complete(new EventResult(listener.name, listener.handle(params), null));
+			}
+			catch (Throwable t)
+			{
+				result.complete(new EventResult(listener.name, null, t));
+			}
+		}
+
+		@Override
+		public int drop()
+		{
+			result.complete(new EventResult(listener.name, null, new RejectedExecutionException(listener.name + " was dropped by event executor")));
+			return 1;
+		}
+	}
+
+	/**
+	 * The {@link OnEvent} method bound to its instance.
+	 */
+	static class Listener
+	{
+		private final String name;
+		private final int arity;
+		private final MethodInvoker<Object> invoker;
+		private final Supplier<Object> supplier;
+		private final Mailbox mailbox;
+		private volatile Object instance;
+
+		/**
+		 * Instantiates a new listener. If <code>instance</code> is
+		 * <code>null</code>, it is resolved by <code>supplier</code> on first
+		 * event, as lazy classes are not created by init.
+		 *
+		 * @param method
+		 *          the method
+		 * @param invoker
+		 *          the invoker
+		 * @param instance
+		 *          the instance, or <code>null</code>
+		 * @param supplier
+		 *          the supplier of instance
+		 * @param mailbox
+		 *          the mailbox of class
+		 */
+		Listener(Method method, MethodInvoker<Object> invoker, Object instance, Supplier<Object> supplier, Mailbox mailbox)
+		{
+			this.name = method.getDeclaringClass().getName() + "." + method.getName();
+			this.arity = method.getParameterCount();
+			this.invoker = invoker;
+			this.instance = instance;
+			this.supplier = supplier;
+			this.mailbox = mailbox;
+		}
+
+		/**
+		 * Handles the event. If count of params matches parameters of method,
+		 * params are passed as they are, otherwise they are cut or filled with
+		 * <code>null</code>.
+		 *
+		 * @param params
+		 *          the params
+		 * @return the result of method
+		 * @throws Exception
+		 *           the exception thrown by method
+		 */
+		Object handle(Object[] params) throws Exception
+		{
+			Object[] args = params;
+			if (args.length != arity)
+			{
+				args = new Object[arity];
+				System.arraycopy(params, 0, args, 0, Math.min(params.length, args.length));
+			}
+			return invoke(args);
+		}
+
+		/**
+		 * Invokes the method with defined args.
+		 *
+		 * @param args
+		 *          the args
+		 * @return the result of method
+		 * @throws Exception
+		 *           the exception thrown by method
+		 */
+		final Object invoke(Object[] args) throws Exception
+		{
+			return invoker.invoke(getInstance(), args);
+		}
+
+		/**
+		 * Gets the count of parameters of method.
+		 *
+		 * @return the arity
+		 */
+		final int getArity()
+		{
+			return arity;
+		}
+
+		/**
+		 * Gets the name of method including its class.
+		 *
+		 * @return the name
+		 */
+		final String getName()
+		{
+			return name;
+		}
+
+		/**
+		 * Gets the instance.
+		 *
+		 * @return the instance
+		 */
+		private Object getInstance()
+		{
+			Object result = instance;
+			if (result == null)
+			{
+				result = supplier.get();
+				instance = result;
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package cz.tvrzna.wireable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cz.tvrzna.wireable.enums.RejectionPolicy;
+
+/**
+ * The factory of executors for asynchronous events. Default executor is bounded
+ * pool of daemon threads with bounded queue, whose overflow is handled by
+ * {@link RejectionPolicy}. Virtual threads are looked up via reflection, so
+ * they are used on Java 21+ and the library still runs on Java 8.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class EventExecutors
+{
+	private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+	/**
+	 * Instantiates a new event executors.
+	 */
+	private EventExecutors()
+	{
+	}
+
+	/**
+	 * Creates the bounded pool.
+	 *
+	 * @param threads
+	 *          the count of threads
+	 * @param queueCapacity
+	 *          the queue capacity
+	 * @param policy
+	 *          the rejection policy
+	 * @param dropped
+	 *          the counter of dropped events
+	 * @return the executor service
+	 */
+	static ExecutorService newBoundedPool(int threads, int queueCapacity, RejectionPolicy policy, AtomicLong dropped)
+	{
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity), newThreadFactory(),
+				newRejectionHandler(policy, dropped));
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * Executes the task, only if executor accepts it immediately. Task is
+	 * offered directly into queue of {@link ThreadPoolExecutor}, so neither
+	 * {@link RejectionPolicy#BLOCK} waits, nor {@link RejectionPolicy#CALLER_RUNS}
+	 * runs the task on calling thread. Other executors are expected not to wait.
+	 *
+	 * @param executor
+	 *          the executor
+	 * @param task
+	 *          the task
+	 * @return true, if task was accepted
+	 */
+	static boolean tryExecute(Executor executor, Runnable task)
+	{
+		if (executor instanceof ThreadPoolExecutor)
+		{
+			ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+			if (pool.isShutdown() || !pool.getQueue().offer(task))
+			{
+				return false;
+			}
+			pool.prestartCoreThread();
+			return true;
+		}
+		try
+		{
+			executor.execute(task);
+			return true;
+		}
+		catch (RejectedExecutionException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Creates executor, that starts virtual thread per event.
+	 *
+	 * @return the executor service, or <code>null</code> if virtual threads are
+	 *         not supported by current Java
+	 */
+	static ExecutorService newVirtualThreadExecutor()
+	{
+		try
+		{
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Creates the factory of daemon threads.
+	 *
+	 * @return the thread factory
+	 */
+	private static ThreadFactory newThreadFactory()
+	{
+		String prefix = "wireable-event-" + POOL_NUMBER.incrementAndGet() + "-";
+		AtomicInteger threadNumber = new AtomicInteger();
+		return r -> {
+			Thread thread = new Thread(r, prefix + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * Creates the handler of rejected events.
+	 *
+	 * @param policy
+	 *          the policy
+	 * @param dropped
+	 *          the counter of dropped events
+	 * @return the rejected execution handler
+	 */
+	private static RejectedExecutionHandler newRejectionHandler(RejectionPolicy policy, AtomicLong dropped)
+	{
+		switch (policy)
+		{
+			case BLOCK:
+				return (r, executor) -> {
+					if (executor.isShutdown())
+					{
+						throw new RejectedExecutionException("Event executor is shut down");
+					}
+					try
+					{
+						executor.getQueue().put(r);
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						throw new RejectedExecutionException("Interrupted while waiting for event queue", e);
+					}
+				};
+			case CALLER_RUNS:
+				return (r, executor) -> {
+					if (executor.isShutdown())
+					{
+						throw new RejectedExecutionException("Event executor is shut down");
+					}
+					r.run();
+				};
+			default:
+				return (r, executor) -> dropped.addAndGet(r instanceof DroppableTask ? ((DroppableTask) r).drop() : 1);
+		}
+	}
+
+	/**
+	 * The task, that has to be notified, when it is dropped by
+	 * {@link RejectionPolicy#DROP}, e.g. because it holds more events or
+	 * somebody waits for its result.
+	 */
+	interface DroppableTask extends Runnable
+	{
+		/**
+		 * Drops the task.
+		 *
+		 * @return the count of dropped events
+		 */
+		int drop();
+	}
+}
@@ -0,0 +1,133 @@
+package cz.tvrzna.wireable;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
+
+/**
+ * The handle of one event, that is resolved once by
+ * {@link WireableContainer#event(String)}. Firing of event by handle invokes
+ * {@link OnEvent} methods directly without normalization and lookup of event
+ * name, so handle could be kept in field of frequently firing class. If
+ * container is initialized again, handle resolves the event on next fire.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+public final class EventHandle
+{
+	private final WireableContainer container;
+	private final String eventName;
+	private volatile Binding binding;
+
+	/**
+	 * Instantiates a new event handle.
+	 *
+	 * @param container
+	 *          the container
+	 * @param eventName
+	 *          the event name
+	 */
+	EventHandle(WireableContainer container, String eventName)
+	{
+		this.container = container;
+		this.eventName = eventName;
+		getDispatcher();
+	}
+
+	/**
+	 * Gets the event name.
+	 *
+	 * @return the event name
+	 */
+	public String getEventName()
+	{
+		return eventName;
+	}
+
+	/**
+	 * Fire event with defined params. It works as
+	 * {@link WireableContainer#fireEvent(String, Object...)}.
+	 *
+	 * @param params
+	 *          the params
+	 * @throws WireableException
+	 *           the wireable exception
+	 */
+	public void fire(Object... params) throws WireableException
+	{
+		EventDispatcher dispatcher = getDispatcher();
+		if (dispatcher != null)
+		{
+			dispatcher.dispatch(params);
+		}
+	}
+
+	/**
+	 * Fire asynchronous event with defined params.
+	 *
+	 * @param params
+	 *          the params
+	 * @see #fireAsync(WireableExceptionHandler, Object...)
+	 */
+	public void fireAsync(Object... params)
+	{
+		fireAsync(null, params);
+	}
+
+	/**
+	 * Fire asynchronous event with defined params by event executor of
+	 * container. It works as
+	 * {@link WireableContainer#fireEventAsync(String, WireableExceptionHandler, Object...)}.
+	 *
+	 * @param handler
+	 *          the handler
+	 * @param params
+	 *          the params
+	 */
+	public void fireAsync(WireableExceptionHandler handler, Object... params)
+	{
+		container.fireAsync(getDispatcher(), params, handler);
+	}
+
+	/**
+	 * Gets the dispatcher of event, that is resolved again only if the container
+	 * was initialized since last resolution.
+	 *
+	 * @return the dispatcher, or <code>null</code> if event has no methods
+	 */
+	private EventDispatcher getDispatcher()
+	{
+		EventRouter eventContext = container.getEventContext();
+		Binding result = binding;
+		if (result == null || result.eventContext != eventContext)
+		{
+			result = new Binding(eventContext, eventContext != null ? eventContext.getDispatcher(eventName) : null);
+			binding = result;
+		}
+		return result.dispatcher;
+	}
+
+	/**
+	 * The dispatcher resolved from one event context.
+	 */
+	private static final class Binding
+	{
+		private final EventRouter eventContext;
+		private final EventDispatcher dispatcher;
+
+		/**
+		 * Instantiates a new binding.
+		 *
+		 * @param eventContext
+		 *          the event context
+		 * @param dispatcher
+		 *          the dispatcher
+		 */
+		private Binding(EventRouter eventContext, EventDispatcher dispatcher)
+		{
+			this.eventContext = eventContext;
+			this.dispatcher = dispatcher;
+		}
+	}
+}
@@ -0,0 +1,328 @@
+package cz.tvrzna.wireable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import cz.tvrzna.wireable.enums.OverflowPolicy;
+import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.EventQueueStatistics;
+import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
+
+/**
+ * The bounded queue of asynchronous events of one event name. Queue is drained
+ * by single task of event executor, so events are handled in order they were
+ * queued. If the queue is full, new event is handled by {@link OverflowPolicy}
+ * and all events are counted by {@link EventQueueStatistics}.<br>
+ * Draining is scheduled again on the same executor, that it was scheduled on
+ * by first queued event. If that executor is already shut down, remaining
+ * events are handled by current thread. Stopped queue rejects new events.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class EventQueue implements EventDelivery, EventExecutors.DroppableTask
+{
+	private static final int THROUGHPUT = 64;
+
+	private final EventDispatcher dispatcher;
+	private final BlockingQueue<Message> queue;
+	private final OverflowPolicy policy;
+	private final long blockTimeout;
+	private final Supplier<Executor> executor;
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private final AtomicLong enqueued = new AtomicLong();
+	private final AtomicLong dispatched = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong blocked = new AtomicLong();
+	private volatile boolean stopped = false;
+	private Executor current;
+
+	/**
+	 * Instantiates a new event queue.
+	 *
+	 * @param dispatcher
+	 *          the dispatcher of event
+	 * @param capacity
+	 *          the capacity
+	 * @param policy
+	 *          the overflow policy
+	 * @param blockTimeout
+	 *          the timeout of {@link OverflowPolicy#BLOCK} in milliseconds
+	 * @param executor
+	 *          the supplier of event executor
+	 */
+	EventQueue(EventDispatcher dispatcher, int capacity, OverflowPolicy policy, long blockTimeout, Supplier<Executor> executor)
+	{
+		this.dispatcher = dispatcher;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.policy = policy;
+		this.blockTimeout = blockTimeout;
+		this.executor = executor;
+	}
+
+	/**
+	 * Publishes the event.
+	 *
+	 * @param params
+	 *          the params
+	 * @param handler
+	 *          the handler of exception, or <code>null</code>
+	 * @throws RejectedExecutionException
+	 *           if the queue is stopped
+	 */
+	@Override
+	public void publish(Object[] params, WireableExceptionHandler handler)
+	{
+		if (stopped)
+		{
+			throw new RejectedExecutionException("Event queue is stopped");
+		}
+		Message message = new Message(params, handler);
+		if (!queue.offer(message))
+		{
+			switch (policy)
+			{
+				case BLOCK:
+					blocked.incrementAndGet();
+					try
+					{
+						if (!queue.offer(message, blockTimeout, TimeUnit.MILLISECONDS))
+						{
+							dropped.incrementAndGet();
+							return;
+						}
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+						dropped.incrementAndGet();
+						return;
+					}
+					break;
+				case DROP_OLDEST:
+					do
+					{
+						if (queue.poll() != null)
+						{
+							dropped.incrementAndGet();
+						}
+					}
+					while (!queue.offer(message));
+					break;
+				case CALLER_RUNS:
+					message.handle();
+					return;
+				default:
+					dropped.incrementAndGet();
+					return;
+			}
+		}
+		if (stopped && queue.remove(message))
+		{
+			throw new RejectedExecutionException("Event queue is stopped");
+		}
+		enqueued.incrementAndGet();
+		schedule();
+	}
+
+	/**
+	 * Schedules draining of the queue on event executor, if it is not scheduled
+	 * yet.
+	 */
+	private void schedule()
+	{
+		if (scheduled.compareAndSet(false, true))
+		{
+			current = executor.get();
+			try
+			{
+				current.execute(this);
+			}
+			catch (RuntimeException e)
+			{
+				scheduled.set(false);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Handles queued events. After {@value #THROUGHPUT} events draining is
+	 * scheduled again, so it does not block thread of event executor.
+	 */
+	@Override
+	public void run()
+	{
+		boolean resume;
+		do
+		{
+			try
+			{
+				Message message;
+				for (int i = 0; i < THROUGHPUT && (message = queue.poll()) != null; i++)
+				{
+					message.handle();
+				}
+			}
+			finally
+			{
+				resume = release();
+			}
+		}
+		while (resume);
+	}
+
+	/**
+	 * Drops all queued events, if draining was rejected by event executor.
+	 *
+	 * @return the count of dropped events
+	 */
+	@Override
+	public int drop()
+	{
+		int result = 0;
+		while (queue.poll() != null)
+		{
+			result++;
+		}
+		dropped.addAndGet(result);
+		if (release())
+		{
+			run();
+		}
+		return result;
+	}
+
+	/**
+	 * Marks draining as not scheduled and schedules it again on the same
+	 * executor, if any event was queued meanwhile. Stopping thread is notified,
+	 * once the queue is drained.
+	 *
+	 * @return true, if executor does not accept draining anymore and current
+	 *         thread has to handle remaining events
+	 */
+	private boolean release()
+	{
+		scheduled.set(false);
+		if (queue.isEmpty() || !scheduled.compareAndSet(false, true))
+		{
+			if (stopped)
+			{
+				synchronized (this)
+				{
+					notifyAll();
+				}
+			}
+			return false;
+		}
+		if (current instanceof ExecutorService && ((ExecutorService) current).isShutdown())
+		{
+			return true;
+		}
+		try
+		{
+			current.execute(this);
+			return false;
+		}
+		catch (RejectedExecutionException e)
+		{
+			return true;
+		}
+	}
+
+	/**
+	 * Stops the queue, so it rejects new events, and waits until all queued
+	 * events are handled.
+	 *
+	 * @param timeout
+	 *          the maximum time to wait in milliseconds
+	 * @return true, if all queued events were handled
+	 * @throws InterruptedException
+	 *           the interrupted exception
+	 */
+	@Override
+	public boolean stop(long timeout) throws InterruptedException
+	{
+		stopped = true;
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+		synchronized (this)
+		{
+			while (!queue.isEmpty() || scheduled.get())
+			{
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0)
+				{
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the statistics of queue.
+	 *
+	 * @return the statistics
+	 */
+	EventQueueStatistics getStatistics()
+	{
+		return new EventQueueStatistics(enqueued.get(), dispatched.get(), dropped.get(), blocked.get(), queue.size());
+	}
+
+	/**
+	 * The queued event.
+	 */
+	private final class Message
+	{
+		private final Object[] params;
+		private final WireableExceptionHandler handler;
+
+		/**
+		 * Instantiates a new message.
+		 *
+		 * @param params
+		 *          the params
+		 * @param handler
+		 *          the handler
+		 */
+		private Message(Object[] params, WireableExceptionHandler handler)
+		{
+			this.params = params;
+			this.handler = handler;
+		}
+
+		/**
+		 * Handles the event by dispatcher.
+		 */
+		private void handle()
+		{
+			try
+			{
+				dispatcher.dispatch(params);
+			}
+			catch (WireableException e)
+			{
+				if (handler != null)
+				{
+					handler.handleException(e);
+				}
+				else
+				{
+					e.printStackTrace();
+				}
+			}
+			finally
+			{
+				dispatched.incrementAndGet();
+			}
+		}
+	}
+}
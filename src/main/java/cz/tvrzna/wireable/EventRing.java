@@ -0,0 +1,250 @@
+package cz.tvrzna.wireable;
+
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import cz.tvrzna.wireable.enums.WaitStrategy;
+import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
+
+/**
+ * The ring buffer of asynchronous events of one event name. Slots of ring and
+ * their argument arrays are preallocated, so firing of event only claims next
+ * sequence and copies params into its slot. Events are handled by single
+ * consumer thread in order of their sequences, all available slots are handled
+ * in one batch.<br>
+ * Stopped consumer closes claiming of sequences, handles all events claimed
+ * before and exits. Events fired after that are rejected.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class EventRing implements EventDelivery, Runnable
+{
+	private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	private static final long CLOSED = Long.MIN_VALUE;
+
+	private final EventDispatcher.Listener[] listeners;
+	private final Slot[] slots;
+	private final int mask;
+	private final WaitStrategy waitStrategy;
+	private final AtomicLong claimed = new AtomicLong(-1);
+	private final Thread thread;
+	private volatile long consumed = -1;
+	private volatile boolean running = true;
+
+	/**
+	 * Instantiates a new event ring and starts its consumer thread.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @param dispatcher
+	 *          the dispatcher of event
+	 * @param bufferSize
+	 *          the count of slots, power of 2
+	 * @param waitStrategy
+	 *          the wait strategy
+	 */
+	EventRing(String eventName, EventDispatcher dispatcher, int bufferSize, WaitStrategy waitStrategy)
+	{
+		this.listeners = dispatcher.getListeners();
+		this.waitStrategy = waitStrategy;
+		this.mask = bufferSize - 1;
+		int arity = 0;
+		for (EventDispatcher.Listener listener : listeners)
+		{
+			arity = Math.max(arity, listener.getArity());
+		}
+		this.slots = new Slot[bufferSize];
+		for (int i = 0; i < bufferSize; i++)
+		{
+			slots[i] = new Slot(arity);
+		}
+		this.thread = new Thread(this, "wireable-ring-" + eventName);
+		this.thread.setDaemon(true);
+		this.thread.start();
+	}
+
+	/**
+	 * Publishes the event. If ring is full, caller waits for free slot.
+	 *
+	 * @param params
+	 *          the params
+	 * @param handler
+	 *          the handler of exception, or <code>null</code>
+	 * @throws RejectedExecutionException
+	 *           if the ring is stopped
+	 */
+	@Override
+	public void publish(Object[] params, WireableExceptionHandler handler)
+	{
+		long sequence = claimed.incrementAndGet();
+		if (sequence < 0)
+		{
+			throw new RejectedExecutionException("Event ring is stopped");
+		}
+		for (int i = 0; sequence - slots.length > consumed; i++)
+		{
+			if (!thread.isAlive())
+			{
+				throw new RejectedExecutionException("Event ring is stopped");
+			}
+			await(i);
+		}
+		Slot slot = slots[(int) sequence & mask];
+		Object[] values = slot.params;
+		int count = Math.min(params.length, values.length);
+		System.arraycopy(params, 0, values, 0, count);
+		Arrays.fill(values, count, values.length, null);
+		slot.handler = handler;
+		slot.sequence = sequence;
+	}
+
+	/**
+	 * Handles published events until the ring is stopped. Once the ring is
+	 * stopped, claiming is closed atomically, so every event claimed before is
+	 * handled and every later event is rejected by
+	 * {@link #publish(Object[], WireableExceptionHandler)}.
+	 */
+	@Override
+	public void run()
+	{
+		long next = consumed + 1;
+		long last = Long.MAX_VALUE;
+		while (true)
+		{
+			Slot slot = slots[(int) next & mask];
+			for (int i = 0; slot.sequence != next; i++)
+			{
+				if (!running && last == Long.MAX_VALUE)
+				{
+					last = claimed.getAndSet(CLOSED);
+				}
+				if (next > last)
+				{
+					return;
+				}
+				await(i);
+			}
+			do
+			{
+				handle(slot);
+				next++;
+				slot = slots[(int) next & mask];
+			}
+			while (slot.sequence == next);
+			consumed = next - 1;
+		}
+	}
+
+	/**
+	 * Handles event of slot by all listeners and clears the slot.
+	 *
+	 * @param slot
+	 *          the slot
+	 */
+	private void handle(Slot slot)
+	{
+		for (EventDispatcher.Listener listener : listeners)
+		{
+			Object[] args = slot.args[listener.getArity()];
+			System.arraycopy(slot.params, 0, args, 0, args.length);
+			try
+			{
+				listener.handle(args);
+			}
+			catch (Throwable t)
+			{
+				WireableException exception = new WireableException("Could not fire method ".concat(listener.getName()), t);
+				if (slot.handler != null)
+				{
+					slot.handler.handleException(exception);
+				}
+				else
+				{
+					exception.printStackTrace();
+				}
+			}
+			finally
+			{
+				Arrays.fill(args, null);
+			}
+		}
+		Arrays.fill(slot.params, null);
+		slot.handler = null;
+	}
+
+	/**
+	 * Waits by wait strategy.
+	 *
+	 * @param attempt
+	 *          the count of previous attempts
+	 */
+	private void await(int attempt)
+	{
+		switch (waitStrategy)
+		{
+			case BUSY_SPIN:
+				break;
+			case YIELD:
+				Thread.yield();
+				break;
+			default:
+				if (attempt < 100)
+				{
+					Thread.yield();
+				}
+				else
+				{
+					LockSupport.parkNanos(PARK_NANOS);
+				}
+		}
+	}
+
+	/**
+	 * Stops the ring after all published events are handled.
+	 *
+	 * @param timeout
+	 *          the maximum time to wait in milliseconds
+	 * @return true, if all events were handled
+	 * @throws InterruptedException
+	 *           the interrupted exception
+	 */
+	@Override
+	public boolean stop(long timeout) throws InterruptedException
+	{
+		running = false;
+		thread.join(Math.max(timeout, 1));
+		return !thread.isAlive();
+	}
+
+	/**
+	 * The preallocated slot of ring.
+	 */
+	private static final class Slot
+	{
+		private final Object[] params;
+		private final Object[][] args;
+		private WireableExceptionHandler handler;
+		private volatile long sequence = -1;
+
+		/**
+		 * Instantiates a new slot.
+		 *
+		 * @param arity
+		 *          the maximal count of parameters of listeners
+		 */
+		private Slot(int arity)
+		{
+			this.params = new Object[arity];
+			this.args = new Object[arity + 1][];
+			for (int i = 0; i <= arity; i++)
+			{
+				args[i] = new Object[i];
+			}
+		}
+	}
+}
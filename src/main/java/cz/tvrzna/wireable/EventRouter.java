@@ -0,0 +1,266 @@
+package cz.tvrzna.wireable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+
+/**
+ * The router of named events, that is created by init. Event names are split
+ * into segments by <code>.</code> and {@link OnEvent} names are stored in trie
+ * of segments, where <code>*</code> matches exactly one segment and
+ * <code>#</code> matches zero or more segments. Dispatchers of all names
+ * defined by {@link OnEvent} or {@link #resolve(String)} are resolved by init
+ * and kept for the lifetime of the router. Dispatchers of other names matched
+ * by wildcards are resolved on first event and kept in cache of
+ * {@value #CACHE_SIZE} least recently used names. Names without any matching
+ * method are not cached.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class EventRouter
+{
+	private static final int CACHE_SIZE = 1024;
+	private static final String SEGMENT = "*";
+	private static final String SEGMENTS = "#";
+
+	private final List<EventDispatcher.Listener> listeners = new ArrayList<>();
+	private final Node root = new Node();
+	private final Map<String, EventDispatcher> dispatchers = new HashMap<>();
+	private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+	private boolean wildcards = false;
+
+	/**
+	 * Instantiates a new event router.
+	 *
+	 * @param listeners
+	 *          the listeners with event names in their order
+	 */
+	EventRouter(List<Map.Entry<String, EventDispatcher.Listener>> listeners)
+	{
+		for (Map.Entry<String, EventDispatcher.Listener> entry : listeners)
+		{
+			Node node = root;
+			for (String segment : split(entry.getKey().toLowerCase()))
+			{
+				wildcards |= SEGMENT.equals(segment) || SEGMENTS.equals(segment);
+				node = node.children.computeIfAbsent(segment, k -> new Node());
+			}
+			node.listeners.add(this.listeners.size());
+			this.listeners.add(entry.getValue());
+		}
+		for (Map.Entry<String, EventDispatcher.Listener> entry : listeners)
+		{
+			String eventName = entry.getKey();
+			EventDispatcher dispatcher = dispatchers.computeIfAbsent(eventName.toLowerCase(), this::match);
+			dispatchers.put(eventName, dispatcher);
+		}
+	}
+
+	/**
+	 * Gets the dispatcher of event. Event name is looked up as it is and then in
+	 * lower case, wildcards are matched only if event name was not found.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @return the dispatcher, or <code>null</code> if event has no methods
+	 */
+	EventDispatcher getDispatcher(String eventName)
+	{
+		if (eventName == null)
+		{
+			return null;
+		}
+		EventDispatcher dispatcher = dispatchers.get(eventName);
+		if (dispatcher == null)
+		{
+			String key = eventName.toLowerCase();
+			dispatcher = dispatchers.get(key);
+			if (dispatcher == null && wildcards)
+			{
+				dispatcher = getCached(key);
+			}
+		}
+		return dispatcher;
+	}
+
+	/**
+	 * Resolves the dispatcher of event name, that is not defined by
+	 * {@link OnEvent}, e.g. event name with its own delivery. Resolved
+	 * dispatcher is kept by router as dispatchers of defined names, so it is
+	 * never evicted from cache. It is called by init, before router is
+	 * published.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @return the dispatcher, or <code>null</code> if event has no methods
+	 */
+	EventDispatcher resolve(String eventName)
+	{
+		EventDispatcher dispatcher = getDispatcher(eventName);
+		if (dispatcher != null)
+		{
+			String key = eventName.toLowerCase();
+			cache.remove(key);
+			dispatchers.putIfAbsent(key, dispatcher);
+			dispatchers.putIfAbsent(eventName, dispatcher);
+		}
+		return dispatcher;
+	}
+
+	/**
+	 * Gets the dispatcher of lower case event name, that is matched by
+	 * wildcards, from cache. If cache exceeds {@value #CACHE_SIZE} names, least
+	 * recently used eighth of names is evicted, so eviction does not run on
+	 * every new name.
+	 *
+	 * @param key
+	 *          the lower case event name
+	 * @return the dispatcher, or <code>null</code> if event has no methods
+	 */
+	private EventDispatcher getCached(String key)
+	{
+		Cached cached = cache.get(key);
+		if (cached != null)
+		{
+			cached.used = System.nanoTime();
+			return cached.dispatcher;
+		}
+
+		EventDispatcher dispatcher = match(key);
+		if (dispatcher == null)
+		{
+			return null;
+		}
+		cache.put(key, new Cached(dispatcher));
+		if (cache.size() > CACHE_SIZE)
+		{
+			synchronized (cache)
+			{
+				if (cache.size() > CACHE_SIZE)
+				{
+					List<Map.Entry<String, Cached>> entries = new ArrayList<>(cache.entrySet());
+					entries.sort(Comparator.comparingLong(e -> e.getValue().used));
+					for (int i = 0; i < entries.size() - CACHE_SIZE + CACHE_SIZE / 8; i++)
+					{
+						cache.remove(entries.get(i).getKey(), entries.get(i).getValue());
+					}
+				}
+			}
+		}
+		return dispatcher;
+	}
+
+	/**
+	 * Creates the dispatcher of all listeners, whose event names match defined
+	 * lower case event name, in their order.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @return the dispatcher, or <code>null</code> if no listener matches
+	 */
+	private EventDispatcher match(String eventName)
+	{
+		Set<Integer> matched = new TreeSet<>();
+		match(root, split(eventName), 0, matched);
+		if (matched.isEmpty())
+		{
+			return null;
+		}
+		List<EventDispatcher.Listener> result = new ArrayList<>();
+		for (Integer index : matched)
+		{
+			result.add(listeners.get(index));
+		}
+		return new EventDispatcher(result);
+	}
+
+	/**
+	 * Collects indexes of listeners of node, that match segments from defined
+	 * index.
+	 *
+	 * @param node
+	 *          the node
+	 * @param segments
+	 *          the segments
+	 * @param index
+	 *          the index of first unmatched segment
+	 * @param matched
+	 *          the matched indexes of listeners
+	 */
+	private void match(Node node, String[] segments, int index, Set<Integer> matched)
+	{
+		Node any = node.children.get(SEGMENTS);
+		if (any != null)
+		{
+			for (int i = index; i <= segments.length; i++)
+			{
+				match(any, segments, i, matched);
+			}
+		}
+		if (index == segments.length)
+		{
+			matched.addAll(node.listeners);
+			return;
+		}
+		Node child = node.children.get(segments[index]);
+		if (child != null)
+		{
+			match(child, segments, index + 1, matched);
+		}
+		Node one = node.children.get(SEGMENT);
+		if (one != null)
+		{
+			match(one, segments, index + 1, matched);
+		}
+	}
+
+	/**
+	 * Splits event name into segments.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @return the segments
+	 */
+	private static String[] split(String eventName)
+	{
+		return eventName.split("\\.", -1);
+	}
+
+	/**
+	 * The cached dispatcher with time of its last use.
+	 */
+	private static class Cached
+	{
+		private final EventDispatcher dispatcher;
+		private volatile long used = System.nanoTime();
+
+		/**
+		 * Instantiates a new cached dispatcher.
+		 *
+		 * @param dispatcher
+		 *          the dispatcher
+		 */
+		private Cached(EventDispatcher dispatcher)
+		{
+			this.dispatcher = dispatcher;
+		}
+	}
+
+	/**
+	 * The node of trie, that contains listeners of event names ending by its
+	 * segment.
+	 */
+	private static class Node
+	{
+		private final Map<String, Node> children = new HashMap<>();
+		private final List<Integer> listeners = new ArrayList<>();
+	}
+}
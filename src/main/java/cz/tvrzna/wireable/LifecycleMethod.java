@@ -0,0 +1,94 @@
+package cz.tvrzna.wireable;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+import cz.tvrzna.wireable.helpers.MethodInvoker;
+
+/**
+ * The {@link OnCreate} or {@link OnStartup} method with its priority, order,
+ * timeout and invoker, that are resolved once per class. Lifecycle methods are
+ * ordered by {@link PriorityLevel} and then by order.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class LifecycleMethod implements Comparable<LifecycleMethod>
+{
+	private static final Object[] NO_ARGS = new Object[0];
+
+	private final String name;
+	private final PriorityLevel priority;
+	private final int order;
+	private final long timeout;
+	private final MethodInvoker<Object> invoker;
+
+	/**
+	 * Instantiates a new lifecycle method.
+	 *
+	 * @param name
+	 *          the name of method including its class
+	 * @param priority
+	 *          the priority
+	 * @param order
+	 *          the order
+	 * @param timeout
+	 *          the timeout in milliseconds, 0 for no timeout
+	 * @param invoker
+	 *          the invoker
+	 */
+	LifecycleMethod(String name, PriorityLevel priority, int order, long timeout, MethodInvoker<Object> invoker)
+	{
+		this.name = name;
+		this.priority = priority;
+		this.order = order;
+		this.timeout = timeout;
+		this.invoker = invoker;
+	}
+
+	/**
+	 * Invokes the method on instance.
+	 *
+	 * @param instance
+	 *          the instance
+	 * @throws Exception
+	 *           the exception
+	 */
+	void invoke(Object instance) throws Exception
+	{
+		invoker.invoke(instance, NO_ARGS);
+	}
+
+	/**
+	 * Gets the priority.
+	 *
+	 * @return the priority
+	 */
+	PriorityLevel getPriority()
+	{
+		return priority;
+	}
+
+	/**
+	 * Gets the timeout in milliseconds.
+	 *
+	 * @return the timeout, 0 for no timeout
+	 */
+	long getTimeout()
+	{
+		return timeout;
+	}
+
+	@Override
+	public String toString()
+	{
+		return name;
+	}
+
+	@Override
+	public int compareTo(LifecycleMethod o)
+	{
+		int result = priority.compareTo(o.priority);
+		return result != 0 ? result : Integer.compare(order, o.order);
+	}
+}
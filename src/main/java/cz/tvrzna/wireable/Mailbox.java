@@ -0,0 +1,231 @@
+package cz.tvrzna.wireable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
+
+/**
+ * The mailbox of asynchronous events of one class with {@link OnEvent}
+ * methods. Events are posted into lock-free queue with many producers and
+ * single consumer, that is scheduled on event executor whenever the mailbox
+ * has events and is not scheduled yet. So events of one class are handled one
+ * after another in order they were posted, while events of different classes
+ * are handled concurrently.<br>
+ * Mailbox is scheduled again on the same executor, that it was scheduled on by
+ * first posted event. If that executor is already shut down, remaining events
+ * are handled by current thread, so shutdown of executor waits for them.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class Mailbox implements EventExecutors.DroppableTask
+{
+	private static final int THROUGHPUT = 64;
+
+	private final Supplier<Executor> executor;
+	private final AtomicReference<Message> tail;
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private Message head;
+	private Executor current;
+
+	/**
+	 * Instantiates a new mailbox.
+	 *
+	 * @param executor
+	 *          the supplier of event executor
+	 */
+	Mailbox(Supplier<Executor> executor)
+	{
+		this.executor = executor;
+		this.head = new Message(null, null, null);
+		this.tail = new AtomicReference<>(head);
+	}
+
+	/**
+	 * Posts the event for listener.
+	 *
+	 * @param listener
+	 *          the listener
+	 * @param params
+	 *          the params
+	 * @param handler
+	 *          the handler of exception, or <code>null</code>
+	 */
+	void post(EventDispatcher.Listener listener, Object[] params, WireableExceptionHandler handler)
+	{
+		Message message = new Message(listener, params, handler);
+		tail.getAndSet(message).next = message;
+		schedule();
+	}
+
+	/**
+	 * Schedules the mailbox on event executor, if it is not scheduled yet.
+	 */
+	private void schedule()
+	{
+		if (scheduled.compareAndSet(false, true))
+		{
+			current = executor.get();
+			try
+			{
+				current.execute(this);
+			}
+			catch (RuntimeException e)
+			{
+				scheduled.set(false);
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Handles posted events. After {@value #THROUGHPUT} events the mailbox is
+	 * scheduled again, so it does not block thread of event executor.
+	 */
+	@Override
+	public void run()
+	{
+		boolean resume;
+		do
+		{
+			try
+			{
+				Message message;
+				for (int i = 0; i < THROUGHPUT && (message = head.next) != null; i++)
+				{
+					head = message;
+					message.handle();
+				}
+			}
+			finally
+			{
+				resume = release();
+			}
+		}
+		while (resume);
+	}
+
+	/**
+	 * Drops all posted events, if mailbox was rejected by event executor.
+	 *
+	 * @return the count of dropped events
+	 */
+	@Override
+	public int drop()
+	{
+		int result = 0;
+		Message message;
+		while ((message = head.next) != null)
+		{
+			head = message;
+			message.clear();
+			result++;
+		}
+		if (release())
+		{
+			run();
+		}
+		return result;
+	}
+
+	/**
+	 * Marks the mailbox as not scheduled and schedules it again on the same
+	 * executor, if any event was posted meanwhile.
+	 *
+	 * @return true, if executor does not accept the mailbox anymore and current
+	 *         thread has to handle remaining events
+	 */
+	private boolean release()
+	{
+		scheduled.set(false);
+		if (tail.get() == head || !scheduled.compareAndSet(false, true))
+		{
+			return false;
+		}
+		if (current instanceof ExecutorService && ((ExecutorService) current).isShutdown())
+		{
+			return true;
+		}
+		try
+		{
+			current.execute(this);
+			return false;
+		}
+		catch (RejectedExecutionException e)
+		{
+			return true;
+		}
+	}
+
+	/**
+	 * The posted event, that is also node of queue.
+	 */
+	private static final class Message
+	{
+		private EventDispatcher.Listener listener;
+		private Object[] params;
+		private WireableExceptionHandler handler;
+		private volatile Message next;
+
+		/**
+		 * Instantiates a new message.
+		 *
+		 * @param listener
+		 *          the listener
+		 * @param params
+		 *          the params
+		 * @param handler
+		 *          the handler
+		 */
+		private Message(EventDispatcher.Listener listener, Object[] params, WireableExceptionHandler handler)
+		{
+			this.listener = listener;
+			this.params = params;
+			this.handler = handler;
+		}
+
+		/**
+		 * Handles the event by listener.
+		 */
+		private void handle()
+		{
+			try
+			{
+				listener.handle(params);
+			}
+			catch (Exception e)
+			{
+				WireableException exception = new WireableException("Could not fire method ".concat(listener.getName()), e);
+				if (handler != null)
+				{
+					handler.handleException(exception);
+				}
+				else
+				{
+					exception.printStackTrace();
+				}
+			}
+			finally
+			{
+				clear();
+			}
+		}
+
+		/**
+		 * Clears references of handled event.
+		 */
+		private void clear()
+		{
+			listener = null;
+			params = null;
+			handler = null;
+		}
+	}
+}
@@ -1,18 +1,11 @@
 package cz.tvrzna.wireable;
 
-import java.io.File;
 import java.io.IOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.net.URLDecoder;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
 /**
  * The utility class that provides help methods for reflections.
@@ -42,9 +35,26 @@ public final class Reflections
 	 * @return the method[]
 	 */
 	public static <T extends Annotation> Method[] findAnnotatedMethods(Object obj, Class<T> annoClazz)
+	{
+		return findAnnotatedMethods(obj.getClass(), annoClazz);
+	}
+
+	/**
+	 * Find annotated methods of class and its superclasses.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param type
+	 *          the class
+	 * @param annoClazz
+	 *          the anno clazz
+	 * @return the method[]
+	 * @since 0.4.0
+	 */
+	public static <T extends Annotation> Method[] findAnnotatedMethods(Class<?> type, Class<T> annoClazz)
 	{
 		List<Method> methods = new ArrayList<>();
-		Class<?> clazz = obj.getClass();
+		Class<?> clazz = type;
 		while (clazz != null && clazz != Object.class)
 		{
 			for (Method method : clazz.getDeclaredMethods())
@@ -71,9 +81,26 @@ public final class Reflections
 	 * @return the field[]
 	 */
 	public static <T extends Annotation> Field[] findAnnotatedFields(Object obj, Class<T> annoClazz)
+	{
+		return findAnnotatedFields(obj.getClass(), annoClazz);
+	}
+
+	/**
+	 * Find annotated fields of class and its superclasses.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param type
+	 *          the class
+	 * @param annoClazz
+	 *          the anno clazz
+	 * @return the field[]
+	 * @since 0.4.0
+	 */
+	public static <T extends Annotation> Field[] findAnnotatedFields(Class<?> type, Class<T> annoClazz)
 	{
 		List<Field> fields = new ArrayList<>();
-		Class<?> clazz = obj.getClass();
+		Class<?> clazz = type;
 		while (clazz != null)
 		{
 			for (Field field : clazz.getDeclaredFields())
@@ -89,96 +116,60 @@ public final class Reflections
 	}
 
 	/**
-	 * Scan package for all available classes in any level.
+	 * Gets the signature of method, that consists of its name and type names of
+	 * its parameters, e.g. <code>onEvent(java.lang.String,int)</code>.
 	 *
-	 * @param packageName
-	 *          the package name
-	 * @return the class[]
-	 * @throws ClassNotFoundException
-	 *           the class not found exception
-	 * @throws IOException
-	 *           Signals that an I/O exception has occurred.
+	 * @param method
+	 *          the method
+	 * @return the signature
+	 * @since 0.4.0
 	 */
-	public static Class<?>[] scanPackage(String packageName) throws ClassNotFoundException, IOException
+	public static String getSignature(Method method)
 	{
-		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-		String path = packageName.replace(".", "/");
-		File baseDir = new File(URLDecoder.decode(classLoader.getResource(path).getPath(), StandardCharsets.UTF_8.name()));
-		List<Class<?>> classes = new ArrayList<>();
-		if (baseDir.isDirectory())
+		StringBuilder sb = new StringBuilder(method.getName()).append('(');
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++)
 		{
-			classes.addAll(findClasses(baseDir, packageName));
+			sb.append(i > 0 ? "," : "").append(parameterTypes[i].getTypeName());
 		}
-		else
-		{
-			JarFile jarFile = new JarFile(baseDir.getPath().substring(5, baseDir.getPath().indexOf("!")));
-			classes.addAll(findClasses(jarFile, packageName, path));
-			jarFile.close();
-		}
-		classes.sort(Comparator.comparing(Class::getName, Comparator.naturalOrder()));
-		return classes.toArray(new Class[classes.size()]);
+		return sb.append(')').toString();
 	}
 
 	/**
-	 * Find classes in currently developed project.
+	 * Scan package for all available classes in any level.
 	 *
-	 * @param directory
-	 *          the directory
 	 * @param packageName
 	 *          the package name
-	 * @return the list
+	 * @return the class[]
 	 * @throws ClassNotFoundException
 	 *           the class not found exception
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
 	 */
-	private static List<Class<?>> findClasses(File directory, String packageName) throws ClassNotFoundException
+	public static Class<?>[] scanPackage(String packageName) throws ClassNotFoundException, IOException
 	{
-		List<Class<?>> classes = new ArrayList<>();
-		File[] files = directory.listFiles();
-		for (File file : files)
-		{
-			if (file.isDirectory())
-			{
-				if (!file.getName().contains("."))
-				{
-					classes.addAll(findClasses(file, packageName + "." + file.getName()));
-				}
-			}
-			else if (file.getName().endsWith(".class"))
-			{
-				classes.add(Class.forName(packageName + '.' + file.getName().substring(0, file.getName().length() - 6)));
-			}
-		}
-		return classes;
+		return new ClassScanner().scan(packageName);
 	}
 
 	/**
-	 * Find classes in defined <code>jarFile</code>.
+	 * Scan package for classes in any level, that are annotated at least by one
+	 * of defined <code>annotations</code>. Annotations are read from bytecode, so
+	 * other classes are not loaded at all.
 	 *
-	 * @param jarFile
-	 *          the jar file
 	 * @param packageName
 	 *          the package name
-	 * @param path
-	 *          the path
-	 * @return the list
+	 * @param annotations
+	 *          the annotations
+	 * @return the class[]
 	 * @throws ClassNotFoundException
 	 *           the class not found exception
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 * @since 0.4.0
 	 */
-	private static List<Class<?>> findClasses(JarFile jarFile, String packageName, String path) throws ClassNotFoundException
+	@SafeVarargs
+	public static Class<?>[] scanPackage(String packageName, Class<? extends Annotation>... annotations) throws ClassNotFoundException, IOException
 	{
-		List<Class<?>> classes = new ArrayList<>();
-
-		Enumeration<JarEntry> entries = jarFile.entries();
-		while (entries.hasMoreElements())
-		{
-			JarEntry entry = entries.nextElement();
-			if (entry.getName().contains(path) && entry.getName().endsWith(".class"))
-			{
-				String className = entry.getName().replace("/", ".").substring(0, entry.getName().length() - 6);
-				classes.add(Class.forName(className));
-			}
-		}
-
-		return classes;
+		return new ClassScanner(annotations).scan(packageName);
 	}
 }
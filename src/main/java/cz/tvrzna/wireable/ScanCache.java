@@ -0,0 +1,326 @@
+package cz.tvrzna.wireable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The persistent cache of package scan results. Every entry is keyed by scanned
+ * root, package and annotation filter, and holds fingerprint of scanned root
+ * with names of found classes. If fingerprint of root changes, the entry is not
+ * used anymore and it is replaced after next scan.<br>
+ * Fingerprint of jar file consists of its path, size and last modification
+ * time, so the jar is not opened at all. Fingerprint of directory consists of
+ * last modification times of all its subdirectories and found class files,
+ * whose paths are stored by entry, so only these paths are checked instead of
+ * the directory walk. It detects added, removed and renamed class files and
+ * any change of found class, but class file, that was not found and is
+ * rewritten in place, e.g. by incremental compilation, is not detected until
+ * any other change of its directory or until the cache file is deleted.
+ * Fingerprints are 64-bit prefixes of SHA-256 digests.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class ScanCache
+{
+	private static final int MAGIC = 0x57524348;
+	private static final int VERSION = 2;
+
+	private final File file;
+	private final Map<File, Long> fingerprints = new ConcurrentHashMap<>();
+	private Map<String, Entry> entries;
+
+	/**
+	 * Instantiates a new scan cache stored in defined <code>file</code>.
+	 *
+	 * @param file
+	 *          the file
+	 */
+	ScanCache(File file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Gets the cached class names, if the entry exists and its fingerprint
+	 * matches current state of scanned root.
+	 *
+	 * @param key
+	 *          the key
+	 * @param root
+	 *          the scanned jar file or directory
+	 * @return the class names or <code>null</code>
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	synchronized List<String> get(String key, File root) throws IOException
+	{
+		Entry entry = getEntries().get(key);
+		if (entry == null)
+		{
+			return null;
+		}
+		long fingerprint;
+		if (root.isDirectory())
+		{
+			Map<String, Long> stamps = new TreeMap<>();
+			for (String path : entry.paths)
+			{
+				stamps.put(path, new File(path).lastModified());
+			}
+			fingerprint = fingerprint(stamps);
+		}
+		else
+		{
+			fingerprint = fingerprint(root);
+		}
+		if (entry.fingerprint == fingerprint)
+		{
+			return new ArrayList<>(entry.classNames);
+		}
+		return null;
+	}
+
+	/**
+	 * Puts the class names into the cache and stores the cache into its file.
+	 * Fingerprint of directory is computed from <code>stamps</code>, that were
+	 * read before the directory was scanned, so any change during the scan
+	 * invalidates the entry.
+	 *
+	 * @param key
+	 *          the key
+	 * @param root
+	 *          the scanned jar file or directory
+	 * @param stamps
+	 *          the last modification times of subdirectories and found class
+	 *          files of directory by their paths, empty for jar file
+	 * @param classNames
+	 *          the class names
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	synchronized void put(String key, File root, Map<String, Long> stamps, List<String> classNames) throws IOException
+	{
+		Map<String, Long> sorted = new TreeMap<>(stamps);
+		long fingerprint = root.isDirectory() ? fingerprint(sorted) : fingerprint(root);
+		getEntries().put(key, new Entry(fingerprint, new ArrayList<>(sorted.keySet()), new ArrayList<>(classNames)));
+		save();
+	}
+
+	/**
+	 * Gets the entries, that are loaded from file on first access. Missing or
+	 * malformed file is handled as empty cache.
+	 *
+	 * @return the entries
+	 */
+	private Map<String, Entry> getEntries()
+	{
+		if (entries == null)
+		{
+			entries = new HashMap<>();
+			if (file.isFile())
+			{
+				try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+				{
+					if (in.readInt() == MAGIC && in.readInt() == VERSION)
+					{
+						int count = in.readInt();
+						for (int i = 0; i < count; i++)
+						{
+							String key = in.readUTF();
+							long fingerprint = in.readLong();
+							List<String> paths = readList(in);
+							List<String> classNames = readList(in);
+							entries.put(key, new Entry(fingerprint, paths, classNames));
+						}
+					}
+				}
+				catch (IOException e)
+				{
+					entries.clear();
+				}
+			}
+		}
+		return entries;
+	}
+
+	/**
+	 * Stores all entries into temporary file, that replaces the cache file
+	 * afterwards.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private void save() throws IOException
+	{
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+		{
+			throw new IOException("Could not create directory " + parent);
+		}
+		File tmp = new File(file.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(entries.size());
+			for (Map.Entry<String, Entry> entry : entries.entrySet())
+			{
+				out.writeUTF(entry.getKey());
+				out.writeLong(entry.getValue().fingerprint);
+				writeList(out, entry.getValue().paths);
+				writeList(out, entry.getValue().classNames);
+			}
+		}
+		try
+		{
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException e)
+		{
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Reads the list of strings.
+	 *
+	 * @param in
+	 *          the input
+	 * @return the list
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static List<String> readList(DataInputStream in) throws IOException
+	{
+		int size = in.readInt();
+		List<String> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			result.add(in.readUTF());
+		}
+		return result;
+	}
+
+	/**
+	 * Writes the list of strings.
+	 *
+	 * @param out
+	 *          the output
+	 * @param list
+	 *          the list
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private static void writeList(DataOutputStream out, List<String> list) throws IOException
+	{
+		out.writeInt(list.size());
+		for (String value : list)
+		{
+			out.writeUTF(value);
+		}
+	}
+
+	/**
+	 * Gets fingerprint of jar file, that is computed on first call.
+	 *
+	 * @param jar
+	 *          the jar file
+	 * @return the fingerprint
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	long fingerprint(File jar) throws IOException
+	{
+		Long result = fingerprints.get(jar);
+		if (result == null)
+		{
+			if (!jar.isFile())
+			{
+				throw new IOException("Could not find " + jar);
+			}
+			Map<String, Long> stamps = new TreeMap<>();
+			stamps.put(jar.getAbsolutePath() + ':' + jar.length(), jar.lastModified());
+			result = fingerprint(stamps);
+			fingerprints.put(jar, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes fingerprint of paths with their last modification times.
+	 *
+	 * @param stamps
+	 *          the last modification times by paths in order
+	 * @return the fingerprint
+	 */
+	private static long fingerprint(Map<String, Long> stamps)
+	{
+		MessageDigest digest;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new IllegalStateException(e);
+		}
+		for (Map.Entry<String, Long> stamp : stamps.entrySet())
+		{
+			digest.update(stamp.getKey().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			for (int i = 0; i < 8; i++)
+			{
+				digest.update((byte) (stamp.getValue() >>> (i * 8)));
+			}
+		}
+		return ByteBuffer.wrap(digest.digest()).getLong();
+	}
+
+	/**
+	 * The cache entry.
+	 */
+	private static class Entry
+	{
+		private final long fingerprint;
+		private final List<String> paths;
+		private final List<String> classNames;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param fingerprint
+		 *          the fingerprint
+		 * @param paths
+		 *          the paths of fingerprint, empty for jar file
+		 * @param classNames
+		 *          the class names
+		 */
+		private Entry(long fingerprint, List<String> paths, List<String> classNames)
+		{
+			this.fingerprint = fingerprint;
+			this.paths = Collections.unmodifiableList(paths);
+			this.classNames = Collections.unmodifiableList(classNames);
+		}
+	}
+}
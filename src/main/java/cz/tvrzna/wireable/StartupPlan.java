@@ -0,0 +1,203 @@
+package cz.tvrzna.wireable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+import cz.tvrzna.wireable.exceptions.WireableException;
+
+/**
+ * The plan of asynchronous {@link OnStartup} methods. Methods are split into
+ * barrier groups by their {@link PriorityLevel}, the next group starts after
+ * all methods of previous group have finished. Within a group, methods of
+ * different instances run concurrently, methods of one instance run one after
+ * another in their order. If any method fails or exceeds its
+ * {@link OnStartup#timeout()}, no following group is started and the plan
+ * fails with {@link WireableException} listing all failed methods.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class StartupPlan
+{
+	private final List<List<List<Task>>> groups = new ArrayList<>();
+	private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+	private volatile Throwable cause;
+
+	/**
+	 * Instantiates a new startup plan of defined instances.
+	 *
+	 * @param instances
+	 *          the instances in their order
+	 */
+	StartupPlan(List<Object> instances)
+	{
+		Map<PriorityLevel, Map<Object, List<Task>>> byPriority = new EnumMap<>(PriorityLevel.class);
+		for (Object o : instances)
+		{
+			for (LifecycleMethod method : BeanAccessor.of(o.getClass()).getLifecycleMethods(OnStartup.class))
+			{
+				byPriority.computeIfAbsent(method.getPriority(), k -> new LinkedHashMap<>()).computeIfAbsent(o, k -> new ArrayList<>()).add(new Task(o, method));
+			}
+		}
+		for (Map<Object, List<Task>> group : byPriority.values())
+		{
+			groups.add(new ArrayList<>(group.values()));
+		}
+	}
+
+	/**
+	 * Executes the plan.
+	 *
+	 * @param executor
+	 *          the executor
+	 * @return the future completed after all methods have finished
+	 */
+	CompletableFuture<Void> execute(Executor executor)
+	{
+		CompletableFuture<Void> result = CompletableFuture.completedFuture(null);
+		for (List<List<Task>> group : groups)
+		{
+			result = result.thenCompose(v -> execute(executor, group));
+		}
+		return result;
+	}
+
+	/**
+	 * Executes one barrier group.
+	 *
+	 * @param executor
+	 *          the executor
+	 * @param group
+	 *          the tasks of group by instances
+	 * @return the future completed after all tasks of group have finished
+	 */
+	private CompletableFuture<Void> execute(Executor executor, List<List<Task>> group)
+	{
+		CompletableFuture<?>[] futures = new CompletableFuture<?>[group.size()];
+		for (int i = 0; i < futures.length; i++)
+		{
+			CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+			for (Task task : group.get(i))
+			{
+				future = future.thenCompose(v -> task.execute(executor));
+			}
+			futures[i] = future;
+		}
+		return CompletableFuture.allOf(futures).handle((v, e) -> {
+			if (!failures.isEmpty())
+			{
+				throw new CompletionException(new WireableException("Could not start services: ".concat(String.join(", ", failures)), cause));
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * The invocation of one {@link OnStartup} method on one instance.
+	 */
+	private class Task
+	{
+		private final Object instance;
+		private final LifecycleMethod method;
+		private final CompletableFuture<Void> future = new CompletableFuture<>();
+		private final AtomicBoolean finished = new AtomicBoolean();
+
+		/**
+		 * Instantiates a new task.
+		 *
+		 * @param instance
+		 *          the instance
+		 * @param method
+		 *          the method
+		 */
+		private Task(Object instance, LifecycleMethod method)
+		{
+			this.instance = instance;
+			this.method = method;
+		}
+
+		/**
+		 * Executes the method by executor. If the method has timeout, returned
+		 * future fails after the timeout, even if the method is still running.
+		 * Every task is executed only once.
+		 *
+		 * @param executor
+		 *          the executor
+		 * @return the future
+		 */
+		private CompletableFuture<Void> execute(Executor executor)
+		{
+			try
+			{
+				executor.execute(() -> {
+					ScheduledFuture<?> timeout = null;
+					if (method.getTimeout() > 0)
+					{
+						timeout = WireableTimer.schedule(() -> finish(method + " timed out after " + method.getTimeout() + " ms", new TimeoutException(method.toString())),
+								method.getTimeout());
+					}
+					try
+					{
+						method.invoke(instance);
+						finish(null, null);
+					}
+					catch (Throwable t)
+					{
+						finish(method + " failed", t);
+					}
+					finally
+					{
+						if (timeout != null)
+						{
+							timeout.cancel(false);
+						}
+					}
+				});
+			}
+			catch (RuntimeException e)
+			{
+				finish(method + " was rejected", e);
+			}
+			return future;
+		}
+
+		/**
+		 * Completes the task, if it was not completed yet. Failure is recorded
+		 * before the future is completed, so it is visible to the end of group.
+		 *
+		 * @param message
+		 *          the message of failure, or <code>null</code> on success
+		 * @param t
+		 *          the throwable, or <code>null</code> on success
+		 */
+		private void finish(String message, Throwable t)
+		{
+			if (finished.compareAndSet(false, true))
+			{
+				if (t == null)
+				{
+					future.complete(null);
+					return;
+				}
+				failures.add(message);
+				if (cause == null)
+				{
+					cause = t;
+				}
+				future.completeExceptionally(t);
+			}
+		}
+	}
+}
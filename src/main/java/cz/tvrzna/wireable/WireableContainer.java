@@ -1,14 +1,34 @@
 package cz.tvrzna.wireable;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Constructor;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import cz.tvrzna.wireable.annotations.OnCreate;
@@ -18,10 +38,16 @@ import cz.tvrzna.wireable.annotations.OnStartup;
 import cz.tvrzna.wireable.annotations.Unwireable;
 import cz.tvrzna.wireable.annotations.Wireable;
 import cz.tvrzna.wireable.annotations.Wired;
+import cz.tvrzna.wireable.enums.OverflowPolicy;
 import cz.tvrzna.wireable.enums.PriorityLevel;
+import cz.tvrzna.wireable.enums.RejectionPolicy;
+import cz.tvrzna.wireable.enums.WaitStrategy;
 import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.EventQueueStatistics;
+import cz.tvrzna.wireable.helpers.EventResult;
+import cz.tvrzna.wireable.helpers.MethodInvoker;
+import cz.tvrzna.wireable.helpers.ScanStatistics;
 import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
-import cz.tvrzna.wireable.helpers.WireableWrapper;
 
 /**
  * The container for <code>Wireable</code> class, that handles preinitialization of
@@ -36,10 +62,37 @@ import cz.tvrzna.wireable.helpers.WireableWrapper;
  */
 public class WireableContainer
 {
-	private boolean loaded = false;
-	private Map<Class<?>, WireableWrapper> classContext;
+	private volatile boolean loaded = false;
+	private Map<Class<?>, BeanWrapper> classContext;
 	private Map<Class<?>, Class<?>> interfaceContext;
-	private Map<String, List<Method>> eventContext;
+	private Map<Class<?>, List<Class<?>>> typeContext;
+	private volatile EventRouter eventContext;
+	private volatile List<BatchListener> batchListeners = Collections.emptyList();
+	private final Map<String, Function<EventDispatcher, EventDelivery>> eventDeliveryFactories = new LinkedHashMap<>();
+	private volatile Map<String, EventDelivery> eventDeliveries = Collections.emptyMap();
+	private volatile ClassValue<EventDispatcher> typedEventContext = createTypedEventContext(Collections.emptyList());
+	private ScanStatistics scanStatistics;
+	private int scanParallelism = 1;
+	private File scanCacheFile;
+	private Executor createExecutor;
+	private Executor startupExecutor;
+	private CompletableFuture<Void> startupFuture;
+	private volatile ExecutorService eventExecutor;
+	private int eventThreads = Runtime.getRuntime().availableProcessors();
+	private int eventQueueCapacity = 1024;
+	private RejectionPolicy eventRejectionPolicy = RejectionPolicy.BLOCK;
+	private boolean eventMailboxes = false;
+	private boolean eventVirtualThreads = false;
+	private final AtomicLong droppedEvents = new AtomicLong();
+	private List<List<Class<?>>> dependencyCycles = Collections.emptyList();
+	private boolean lazyByDefault = false;
+	private volatile boolean wirePhase = false;
+	private volatile boolean createPhase = false;
+	private volatile boolean startupPhase = false;
+	private final Object lazyLock = new Object();
+	private final Map<Class<?>, Object> pendingInstances = new HashMap<>();
+	private final List<Class<?>> lazyPath = new ArrayList<>();
+	private volatile ClassValue<BeanAccessor.InjectionPlan> injectionPlans = createInjectionPlans();
 
 	/**
 	 * Instantiates a new wireable container.
@@ -64,7 +117,13 @@ public class WireableContainer
 	 * by {@link #fireEvent(String, Object...)}<br>
 	 * Last two steps is running of {@link OnCreate} and {@link OnStartup}
 	 * annotated methods inside loaded classes. Since 0.2.0 priority level of
-	 * these methods is supported.
+	 * these methods is supported.<br>
+	 * Since 0.4.0 classes are read from <code>META-INF/wireable/index</code>, if
+	 * it contains any class of <code>strPackage</code>, otherwise the package is
+	 * scanned. {@link OnCreate} methods are invoked in order of {@link Wired}
+	 * dependencies, see {@link #setCreateExecutor(Executor)}. Lazy
+	 * {@link Wireable} classes are not created by init, see
+	 * {@link Wireable#lazy()}.
 	 *
 	 * @param strPackage
 	 *          the str package
@@ -72,325 +131,1492 @@ public class WireableContainer
 	 *           the wireable exception
 	 */
 	public void init(String strPackage) throws WireableException
+	{
+		init(new String[]
+		{ strPackage });
+	}
+
+	/**
+	 * Inits Wireable and Unwireable in all classes, that are found in any of
+	 * defined <code>packages</code>. All packages are scanned in one pass across
+	 * all classpath roots, that contain them, and found classes are handled
+	 * together as described in {@link #init(String)}.
+	 *
+	 * @param packages
+	 *          the packages
+	 * @throws WireableException
+	 *           the wireable exception
+	 * @since 0.4.0
+	 */
+	public void init(String... packages) throws WireableException
 	{
 		if (!loaded)
 		{
-			classContext = new HashMap<>();
-			interfaceContext = new HashMap<>();
-			eventContext = new HashMap<>();
+			startupFuture = initContext(packages, startupExecutor != null);
 			try
 			{
-				for (Class<?> clazz : Reflections.scanPackage(strPackage))
+				startupFuture.join();
+			}
+			catch (CompletionException e)
+			{
+				loaded = false;
+				if (e.getCause() instanceof WireableException)
+				{
+					throw (WireableException) e.getCause();
+				}
+				throw new WireableException("Could not initialize services", e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Inits classes of defined <code>packages</code> as {@link #init(String...)}
+	 * does, but {@link OnStartup} methods are invoked asynchronously by executor
+	 * set by {@link #setStartupExecutor(Executor)}, or by common
+	 * <code>ForkJoinPool</code> if it is not set. Methods with the same
+	 * {@link PriorityLevel} run concurrently, methods with lower priority start
+	 * after all methods with higher priority have finished. Container is
+	 * considered as loaded after this method returns, returned future completes
+	 * after all {@link OnStartup} methods have finished. If any of them fails or
+	 * exceeds its {@link OnStartup#timeout()}, the future fails with
+	 * {@link WireableException}, that lists all failed methods.
+	 *
+	 * @param packages
+	 *          the packages
+	 * @return the future of startup
+	 * @throws WireableException
+	 *           the wireable exception thrown before {@link OnStartup} methods
+	 * @since 0.4.0
+	 */
+	public CompletableFuture<Void> initAsync(String... packages) throws WireableException
+	{
+		if (!loaded)
+		{
+			startupFuture = initContext(packages, true);
+		}
+		return getStartupFuture();
+	}
+
+	/**
+	 * Inits the context. If <code>async</code> is set, {@link OnStartup}
+	 * methods are invoked by {@link StartupPlan}, otherwise they are invoked on
+	 * calling thread and returned future is already completed.
+	 *
+	 * @param packages
+	 *          the packages
+	 * @param async
+	 *          the async
+	 * @return the future of startup
+	 * @throws WireableException
+	 *           the wireable exception
+	 */
+	private CompletableFuture<Void> initContext(String[] packages, boolean async) throws WireableException
+	{
+		classContext = new HashMap<>();
+		interfaceContext = new HashMap<>();
+		typeContext = new HashMap<>();
+		eventContext = new EventRouter(Collections.emptyList());
+		injectionPlans = createInjectionPlans();
+		wirePhase = false;
+		createPhase = false;
+		startupPhase = false;
+		try
+		{
+			for (Class<?> clazz : findClasses(packages))
+			{
+				if (clazz.isAnnotationPresent(Wireable.class) || clazz.isAnnotationPresent(Unwireable.class))
 				{
-					if (clazz.isAnnotationPresent(Wireable.class) || clazz.isAnnotationPresent(Unwireable.class))
+					PriorityLevel priorityLevel = PriorityLevel.NORMAL;
+					boolean lazy = false;
+					if (clazz.isAnnotationPresent(Wireable.class))
 					{
-						PriorityLevel priorityLevel = PriorityLevel.NORMAL;
-						if (clazz.isAnnotationPresent(Wireable.class))
+						Wireable wireable = clazz.getAnnotation(Wireable.class);
+						priorityLevel = wireable.priority();
+						lazy = wireable.lazy() || lazyByDefault;
+						if (wireable.priorityFor() != null && wireable.priorityFor().isInterface())
 						{
-							Wireable wireable = clazz.getAnnotation(Wireable.class);
-							priorityLevel = wireable.priority();
-							if (wireable.priorityFor() != null && wireable.priorityFor().isInterface())
-							{
-								interfaceContext.put(wireable.priorityFor(), clazz);
-							}
-						} else if (clazz.isAnnotationPresent(Unwireable.class)) {
-							Unwireable unwireable = clazz.getAnnotation(Unwireable.class);
-							priorityLevel = unwireable.priority();
+							interfaceContext.put(wireable.priorityFor(), clazz);
 						}
-						Constructor<?> constr = clazz.getDeclaredConstructor();
-						constr.setAccessible(true);
-						classContext.put(clazz, new WireableWrapper(constr.newInstance(), clazz.isAnnotationPresent(Wireable.class), priorityLevel));
+					} else if (clazz.isAnnotationPresent(Unwireable.class)) {
+						Unwireable unwireable = clazz.getAnnotation(Unwireable.class);
+						priorityLevel = unwireable.priority();
+					}
+					if (lazy)
+					{
+						classContext.put(clazz, new BeanWrapper(true, priorityLevel, true));
+					}
+					else
+					{
+						classContext.put(clazz, new BeanWrapper(clazz.isAnnotationPresent(Wireable.class), priorityLevel, false));
 					}
 				}
+			}
+
+			typeContext = createTypeContext();
+
+			List<Class<?>> path = new ArrayList<>();
+			for (Class<?> clazz : getClasses())
+			{
+				BeanWrapper wrapper = classContext.get(clazz);
+				if (!wrapper.isLazy() && !wrapper.isCreated())
+				{
+					wrapper.setInstance(createInstance(clazz, path));
+				}
+			}
 
-				for (Object o : getInstances())
+			wirePhase = true;
+			for (Object o : getInstances())
+			{
+				if (BeanAccessor.of(o.getClass()).hasWiredFields())
 				{
 					wireObjects(o);
 				}
+			}
 
-				for (Object o : getInstances())
+			List<Map.Entry<String, EventDispatcher.Listener>> listeners = new ArrayList<>();
+			List<Map.Entry<Class<?>, EventDispatcher.Listener>> typedListeners = new ArrayList<>();
+			List<BatchListener> batches = new ArrayList<>();
+			for (Class<?> clazz : getClasses())
+			{
+				Mailbox mailbox = new Mailbox(this::getEventExecutor);
+				for (Method method : Reflections.findAnnotatedMethods(clazz, OnEvents.class))
 				{
-					for (Method method : Reflections.findAnnotatedMethods(o, OnEvents.class))
+					OnEvents onEvents = method.getAnnotation(OnEvents.class);
+					if (onEvents.value() != null)
 					{
-						OnEvents onEvents = method.getAnnotation(OnEvents.class);
-						if (onEvents.value() != null)
+						for (OnEvent onEvent : onEvents.value())
 						{
-							for (OnEvent onEvent : onEvents.value())
+							if (onEvent.value() != null)
 							{
-								if (onEvent.value() != null)
-								{
-									eventContext.computeIfAbsent(onEvent.value().toLowerCase(), k -> new ArrayList<>()).add(method);
-								}
+								addListener(listeners, typedListeners, batches, mailbox, onEvent, clazz, method);
 							}
 						}
 					}
+				}
 
-					for (Method method : Reflections.findAnnotatedMethods(o, OnEvent.class))
+				for (Method method : Reflections.findAnnotatedMethods(clazz, OnEvent.class))
+				{
+					OnEvent onEvent = method.getAnnotation(OnEvent.class);
+					if (onEvent.value() != null)
 					{
-						OnEvent onEvent = method.getAnnotation(OnEvent.class);
-						if (onEvent.value() != null)
-						{
-							eventContext.computeIfAbsent(onEvent.value().toLowerCase(), k -> new ArrayList<>()).add(method);
-						}
+						addListener(listeners, typedListeners, batches, mailbox, onEvent, clazz, method);
 					}
 				}
-
-				for (Object o : getInstances())
+			}
+			EventRouter router = new EventRouter(listeners);
+			for (EventDelivery delivery : eventDeliveries.values())
+			{
+				delivery.stop(0);
+			}
+			Map<String, EventDelivery> deliveries = new LinkedHashMap<>();
+			for (Map.Entry<String, Function<EventDispatcher, EventDelivery>> entry : eventDeliveryFactories.entrySet())
+			{
+				EventDispatcher dispatcher = router.resolve(entry.getKey());
+				if (dispatcher != null && dispatcher.getDelivery() == null)
 				{
-					invokeMethodsByPriority(o, OnCreate.class);
+					dispatcher.setDelivery(entry.getValue().apply(dispatcher));
+					deliveries.put(entry.getKey(), dispatcher.getDelivery());
 				}
+			}
+			eventDeliveries = deliveries;
+			eventContext = router;
+			typedEventContext = createTypedEventContext(typedListeners);
+			batchListeners = batches;
 
-				for (Object o : getInstances())
-				{
-					invokeMethodsByPriority(o, OnStartup.class);
-				}
+			createPhase = true;
+			Set<Class<?>> created = classContext.entrySet().stream().filter(e -> e.getValue().isCreated()).map(Map.Entry::getKey).collect(Collectors.toSet());
+			DependencyGraph graph = new DependencyGraph(created, this::findDependencies, c -> classContext.get(c).getPriorityLevel());
+			dependencyCycles = graph.getCycles();
+			graph.execute(createExecutor, c -> invokeLifecycle(classContext.get(c).getInstance(), OnCreate.class));
 
-				if (!classContext.isEmpty())
-				{
-					loaded = true;
-				}
+			startupPhase = true;
+			CompletableFuture<Void> future = CompletableFuture.completedFuture(null);
+			if (async)
+			{
+				future = new StartupPlan(getInstances()).execute(startupExecutor != null ? startupExecutor : ForkJoinPool.commonPool());
 			}
-			catch (Exception e)
+			else
+			{
+				invokeStartup(getInstances());
+			}
+
+			if (!classContext.isEmpty())
 			{
-				throw new WireableException("Could not initialize services", e);
+				loaded = true;
 			}
+			return future;
+		}
+		catch (Exception e)
+		{
+			throw new WireableException("Could not initialize services", e);
 		}
 	}
 
 	/**
-	 * Invoke methods of defined annotation class by predefined priority level.
+	 * Find classes of defined packages. Classpath roots indexed by
+	 * <code>WireableProcessor</code> are not scanned and only their indexed
+	 * classes are loaded. All other roots of packages are scanned together in
+	 * one pass and only classes annotated by {@link Wireable} or
+	 * {@link Unwireable} are loaded.
+	 *
+	 * @param packages
+	 *          the packages
+	 * @return the class[] sorted by name
+	 * @throws ClassNotFoundException
+	 *           the class not found exception
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	private Class<?>[] findClasses(String... packages) throws ClassNotFoundException, IOException
+	{
+		Set<String> classNames = new TreeSet<>();
+		Map<String, List<String>> indexed = WireableIndex.findClassNamesByRoot(packages);
+		for (List<String> indexedClassNames : indexed.values())
+		{
+			classNames.addAll(indexedClassNames);
+		}
+
+		ClassScanner scanner = new ClassScanner(scanParallelism, Wireable.class, Unwireable.class);
+		scanner.setSkippedRoots(indexed.keySet());
+		if (scanCacheFile != null)
+		{
+			scanner.setCache(new ScanCache(scanCacheFile));
+		}
+		int scannedClasses = classNames.size();
+		classNames.addAll(scanner.findClassNames(packages));
+		scannedClasses += scanner.getStatistics().getScannedClasses();
+
+		List<Class<?>> classes = new ArrayList<>();
+		for (String className : classNames)
+		{
+			classes.add(Class.forName(className));
+		}
+		scanStatistics = new ScanStatistics(scannedClasses, classes.size());
+		return classes.toArray(new Class<?>[classes.size()]);
+	}
+
+	/**
+	 * Creates instance of defined class. If it has {@link Wired} constructor,
+	 * instances of its parameters are created first, so classes are created in
+	 * topological order of their constructors.
 	 *
-	 * @param <T>
-	 *          the generic type
-	 * @param o
-	 *          the object with annotated methods
 	 * @param clazz
-	 *          the class of annotation
+	 *          the clazz
+	 * @param path
+	 *          the classes, whose constructor parameters are being created
+	 * @return the instance
 	 * @throws Exception
 	 *           the exception
 	 */
-	private <T extends Annotation> void invokeMethodsByPriority(Object o, Class<T> clazz) throws Exception
+	private Object createInstance(Class<?> clazz, List<Class<?>> path) throws Exception
 	{
-		for (PriorityLevel priority : PriorityLevel.values())
+		if (path.contains(clazz))
 		{
-			for (Method method : Reflections.findAnnotatedMethods(o, clazz))
+			StringBuilder sb = new StringBuilder("Cyclic constructor dependency: ");
+			for (Class<?> c : path.subList(path.indexOf(clazz), path.size()))
 			{
-				T anno = method.getAnnotation(clazz);
-				PriorityLevel annPriority = PriorityLevel.NORMAL;
+				sb.append(c.getName()).append(" -> ");
+			}
+			throw new IllegalStateException(sb.append(clazz.getName()).toString());
+		}
 
-				if (anno instanceof OnCreate)
+		BeanAccessor accessor = BeanAccessor.of(clazz);
+		Class<?>[] types = accessor.getParameterTypes();
+		Object[] args = new Object[types.length];
+		path.add(clazz);
+		try
+		{
+			for (int i = 0; i < types.length; i++)
+			{
+				Class<?> dependency = resolveClass(types[i]);
+				BeanWrapper wrapper = dependency != null ? classContext.get(dependency) : null;
+				if (wrapper == null || !wrapper.isWireable())
 				{
-					annPriority = ((OnCreate) anno).priority();
+					throw new IllegalStateException("Could not resolve parameter " + types[i].getName() + " of " + clazz.getName() + " constructor");
 				}
-				else if (anno instanceof OnStartup)
+				if (wrapper.isLazy())
 				{
-					annPriority = ((OnStartup) anno).priority();
+					args[i] = getInstance(dependency, wrapper);
 				}
-
-				if (priority.equals(annPriority))
+				else
 				{
-					method.setAccessible(true);
-					method.invoke(o);
+					if (!wrapper.isCreated())
+					{
+						wrapper.setInstance(createInstance(dependency, path));
+					}
+					args[i] = wrapper.getInstance();
 				}
 			}
 		}
+		finally
+		{
+			path.remove(path.size() - 1);
+		}
+		return accessor.newInstance(args);
 	}
 
 	/**
-	 * Gets the instances.
+	 * Creates the cache of injection plans, that is used by
+	 * {@link #wireObjects(Object...)} after initialization. Plans hold resolved
+	 * target instances, so the cache is replaced by every init.
 	 *
-	 * @return the instances
+	 * @return the cache of injection plans
 	 */
-	private List<Object> getInstances()
+	private ClassValue<BeanAccessor.InjectionPlan> createInjectionPlans()
 	{
-		return classContext.values().stream()
-				.sorted(Comparator.comparing(WireableWrapper::getPriorityLevel, Comparator.naturalOrder()).thenComparing((a) -> a.getInstance().getClass().getName()))
-				.map(w -> w.getInstance()).collect(Collectors.toList());
+		return new ClassValue<BeanAccessor.InjectionPlan>()
+		{
+			@Override
+			protected BeanAccessor.InjectionPlan computeValue(Class<?> type)
+			{
+				try
+				{
+					return BeanAccessor.of(type).createPlan(WireableContainer.this);
+				}
+				catch (IllegalAccessException e)
+				{
+					throw new IllegalStateException(e);
+				}
+			}
+		};
 	}
 
 	/**
-	 * Gets the single instance of {@link Wireable} class, that is loaded in
-	 * <code>classContext</code>. This methods access classes loaded in context to
-	 * any class.
+	 * Creates the cache of dispatchers of typed events. Dispatcher of event class
+	 * contains all typed listeners, whose type is the class, its superclass or
+	 * interface, and it is resolved once per class.
 	 *
-	 * @param <T>
-	 *          the generic type
-	 * @param clazz
-	 *          the clazz
-	 * @return single instance of Wireable from WireableContext
+	 * @param typedListeners
+	 *          the typed listeners with their event types
+	 * @return the typed event context
 	 */
-	public <T> T getInstance(Class<T> clazz)
+	private ClassValue<EventDispatcher> createTypedEventContext(List<Map.Entry<Class<?>, EventDispatcher.Listener>> typedListeners)
 	{
-		return getInstance(clazz, true);
+		return new ClassValue<EventDispatcher>()
+		{
+			@Override
+			protected EventDispatcher computeValue(Class<?> type)
+			{
+				List<EventDispatcher.Listener> listeners = new ArrayList<>();
+				for (Map.Entry<Class<?>, EventDispatcher.Listener> entry : typedListeners)
+				{
+					if (entry.getKey().isAssignableFrom(type))
+					{
+						listeners.add(entry.getValue());
+					}
+				}
+				return new EventDispatcher(listeners);
+			}
+		};
 	}
 
 	/**
-	 * Gets the single instance of {@link Wireable} or {@link Unwireable} class,
-	 * that is loaded in <code>classContext</code>. This methods access classes
-	 * loaded in context to any class. If <code>clazz</code> is interface, it
-	 * looks for priority definition into <code>interfaceContext</code>, if
-	 * nothing is found, it iterates all known classes in
-	 * <code>classContext</code> to find suitable class.
+	 * Find loaded classes, whose instances are wired into {@link Wired} fields or
+	 * constructor of defined class.
 	 *
-	 * @param <T>
-	 *          the generic type
 	 * @param clazz
 	 *          the clazz
-	 * @param onlyWireable
-	 *          the only wireable
-	 * @return single instance of Wireable from WireableContext
+	 * @return the dependencies
 	 */
-	@SuppressWarnings("unchecked")
-	public <T> T getInstance(Class<T> clazz, boolean onlyWireable)
+	private List<Class<?>> findDependencies(Class<?> clazz)
 	{
-		if (interfaceContext == null || classContext == null)
+		List<Class<?>> types = new ArrayList<>(Arrays.asList(BeanAccessor.of(clazz).getParameterTypes()));
+		for (Field field : Reflections.findAnnotatedFields(clazz, Wired.class))
 		{
-			return null;
+			types.add(field.getType());
 		}
 
-		Class<T> resultClazz = clazz;
-
-		if (clazz.isInterface())
+		List<Class<?>> result = new ArrayList<>();
+		for (Class<?> type : types)
 		{
-			resultClazz = (Class<T>) interfaceContext.get(clazz);
-			if (resultClazz == null)
+			Class<?> dependency = resolveClass(type);
+			BeanWrapper wrapper = dependency != null ? classContext.get(dependency) : null;
+			if (wrapper != null && wrapper.isWireable() && wrapper.isCreated())
 			{
-				for (Class<?> clz : classContext.keySet())
-				{
-					if (clazz.isAssignableFrom(clz))
-					{
-						resultClazz = (Class<T>) clz;
-						break;
-					}
-				}
+				result.add(dependency);
 			}
 		}
+		return result;
+	}
 
-		WireableWrapper wrapper = classContext.get(resultClazz);
-		if (wrapper != null)
+	/**
+	 * Adds the {@link OnEvent} method of class into listeners of event. Instance
+	 * of eager class is bound immediately, instance of lazy class is resolved on
+	 * first event. Method without event name is added into typed listeners by
+	 * type of its parameter, method with batch is added also into batch
+	 * listeners.
+	 *
+	 * @param listeners
+	 *          the listeners with their event names
+	 * @param typedListeners
+	 *          the typed listeners with their event types
+	 * @param batchListeners
+	 *          the batch listeners
+	 * @param mailbox
+	 *          the mailbox of class
+	 * @param onEvent
+	 *          the annotation of method
+	 * @param clazz
+	 *          the clazz
+	 * @param method
+	 *          the method
+	 * @throws IllegalStateException
+	 *           if typed method does not have one parameter or it defines batch
+	 *           or coalescing
+	 */
+	private void addListener(List<Map.Entry<String, EventDispatcher.Listener>> listeners, List<Map.Entry<Class<?>, EventDispatcher.Listener>> typedListeners,
+			List<BatchListener> batchListeners, Mailbox mailbox, OnEvent onEvent, Class<?> clazz, Method method)
+	{
+		BeanWrapper wrapper = classContext.get(clazz);
+		MethodInvoker<Object> invoker = BeanAccessor.of(clazz).getInvoker(method);
+		if (onEvent.value().isEmpty())
 		{
-			if (onlyWireable)
+			if (method.getParameterCount() != 1)
 			{
-				if (wrapper.isWireable())
-				{
-					return (T) wrapper.getInstance();
-				}
+				throw new IllegalStateException("Typed event method " + clazz.getName() + "." + method.getName() + " must have one parameter");
 			}
-			else
+			if (onEvent.batchSize() > 0 || onEvent.batchDelay() > 0 || onEvent.coalesce() || !onEvent.coalesceKey().isEmpty())
 			{
-				return (T) wrapper.getInstance();
+				throw new IllegalStateException("Typed event method " + clazz.getName() + "." + method.getName() + " does not support batch or coalesce");
 			}
+			typedListeners.add(new AbstractMap.SimpleImmutableEntry<>(MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType(),
+					new EventDispatcher.Listener(method, invoker, wrapper.getInstance(), () -> getInstance(clazz, wrapper), mailbox)));
+			return;
 		}
-		return null;
+		EventDispatcher.Listener listener;
+		if (onEvent.batchSize() > 0 || onEvent.batchDelay() > 0)
+		{
+			BatchListener batchListener = new BatchListener(method, invoker, wrapper.getInstance(), () -> getInstance(clazz, wrapper), mailbox, onEvent,
+					task -> tryExecuteEvent(task, null));
+			batchListeners.add(batchListener);
+			listener = batchListener;
+		}
+		else
+		{
+			listener = new EventDispatcher.Listener(method, invoker, wrapper.getInstance(), () -> getInstance(clazz, wrapper), mailbox);
+		}
+		String eventName = onEvent.value();
+		listeners.add(new AbstractMap.SimpleImmutableEntry<>(eventName, listener));
 	}
 
 	/**
-	 * Fire events, that are pre-loaded in <code>eventContext</code>. All possible
-	 * <code>params</code> are passed, but there is no argument type check, if
-	 * mismatch occurs, <code>WireableException</code> is thrown.
+	 * Invoke {@link OnCreate} or {@link OnStartup} methods of instance ordered by
+	 * their priority level and order.
 	 *
-	 * @param eventName
-	 *          the event name
-	 * @param params
-	 *          the params
-	 * @throws WireableException
-	 *           the wireable exception
-	 * @since 0.2.0
+	 * @param o
+	 *          the instance
+	 * @param phase
+	 *          the annotation of phase
+	 * @throws Exception
+	 *           the exception
 	 */
-	public void fireEvent(String eventName, Object... params) throws WireableException
+	private void invokeLifecycle(Object o, Class<? extends Annotation> phase) throws Exception
 	{
-		if (eventContext == null)
+		for (LifecycleMethod method : BeanAccessor.of(o.getClass()).getLifecycleMethods(phase))
 		{
-			return;
+			method.invoke(o);
 		}
+	}
 
-		if (eventName != null && eventContext.containsKey(eventName.toLowerCase()))
+	/**
+	 * Invoke {@link OnStartup} methods of all defined instances. All methods are
+	 * collected into one plan, that is ordered by priority level and order of
+	 * methods and then by order of instances.
+	 *
+	 * @param instances
+	 *          the instances
+	 * @throws Exception
+	 *           the exception
+	 */
+	private void invokeStartup(List<Object> instances) throws Exception
+	{
+		List<Map.Entry<Object, LifecycleMethod>> plan = new ArrayList<>();
+		for (Object o : instances)
 		{
-			for (Method m : eventContext.get(eventName.toLowerCase()))
+			for (LifecycleMethod method : BeanAccessor.of(o.getClass()).getLifecycleMethods(OnStartup.class))
 			{
-				Object[] args = new Object[m.getParameterCount()];
-				for (int i = 0; i < (args.length > params.length ? params.length : args.length); i++)
-				{
-					args[i] = params[i];
-				}
-				try
-				{
-					m.setAccessible(true);
-					m.invoke(getInstance(m.getDeclaringClass(), false), args);
-				}
-				catch (Exception e)
-				{
-					throw new WireableException("Could not fire method ".concat(m.getName()), e);
-				}
+				plan.add(new AbstractMap.SimpleImmutableEntry<>(o, method));
 			}
 		}
+		plan.sort(Map.Entry.comparingByValue());
+		for (Map.Entry<Object, LifecycleMethod> entry : plan)
+		{
+			entry.getValue().invoke(entry.getKey());
+		}
 	}
 
-	/*
-	 * (non-Javadoc)
+	/**
+	 * Gets the instances, that are already created.
 	 *
-	 * @see WireableContext#fireEventAsync(String, WireableExceptionHandler,
-	 * Object...)
+	 * @return the instances
 	 */
-	public void fireEventAsync(String eventName, Object... params)
+	private List<Object> getInstances()
 	{
-		fireEventAsync(eventName, null, params);
+		return classContext.values().stream().filter(BeanWrapper::isCreated)
+				.sorted(Comparator.comparing(BeanWrapper::getPriorityLevel, Comparator.naturalOrder()).thenComparing((a) -> a.getInstance().getClass().getName()))
+				.map(w -> w.getInstance()).collect(Collectors.toList());
 	}
 
 	/**
-	 * Fire asynchronous events, that are pre-loaded in <code>eventContext</code>.
-	 * All possible <code>params</code> are passed, but there is no argument type
-	 * check, if mismatch occurs, it tries to handle exception with
-	 * {@link WireableExceptionHandler} if is presented in params.
+	 * Gets all loaded classes including lazy ones in the same order as
+	 * {@link #getInstances()}.
 	 *
-	 * @param eventName
-	 *          the event name
-	 * @param handler
-	 *          the handler
-	 * @param params
-	 *          the params
-	 * @since 0.3.0
+	 * @return the classes
 	 */
-	public void fireEventAsync(String eventName, WireableExceptionHandler handler, Object... params)
+	private List<Class<?>> getClasses()
 	{
-		new Thread(() -> {
-			try
+		return classContext.keySet().stream()
+				.sorted(Comparator.comparing((Class<?> c) -> classContext.get(c).getPriorityLevel(), Comparator.naturalOrder()).thenComparing(Class::getName))
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Gets the instance of wrapper. If the wrapper is lazy and its instance was
+	 * not created yet, it is created and wired under lock, so it happens exactly
+	 * once. It is wired and its {@link OnCreate} and {@link OnStartup} methods
+	 * are invoked, if initialization already passed these steps. Instance is
+	 * visible to other threads after all these steps are finished, cyclic
+	 * {@link Wired} references get the instance being created.
+	 *
+	 * @param clazz
+	 *          the clazz
+	 * @param wrapper
+	 *          the wrapper
+	 * @return the instance
+	 */
+	private Object getInstance(Class<?> clazz, BeanWrapper wrapper)
+	{
+		Object instance = wrapper.getInstance();
+		if (instance != null || !wrapper.isLazy())
+		{
+			return instance;
+		}
+
+		synchronized (lazyLock)
+		{
+			instance = wrapper.getInstance();
+			if (instance == null)
 			{
-				fireEvent(eventName, params);
+				instance = pendingInstances.get(clazz);
 			}
-			catch (WireableException e)
+			if (instance == null)
 			{
-				if (handler != null)
+				try
 				{
-					handler.handleException(e);
+					instance = createInstance(clazz, lazyPath);
+					pendingInstances.put(clazz, instance);
+					if (wirePhase)
+					{
+						wireObjects(instance);
+					}
+					if (createPhase)
+					{
+						invokeLifecycle(instance, OnCreate.class);
+					}
+					if (startupPhase)
+					{
+						invokeLifecycle(instance, OnStartup.class);
+					}
+					wrapper.setInstance(instance);
 				}
-				else
+				catch (Exception e)
 				{
-					e.printStackTrace();
+					throw new IllegalStateException("Could not create lazy instance of ".concat(clazz.getName()), e);
+				}
+				finally
+				{
+					pendingInstances.remove(clazz);
 				}
 			}
-		}).start();
+		}
+		return instance;
 	}
 
 	/**
-	 * Wire all {@link Wireable} fields defined by {@link Wired} annotation in
-	 * object. Since 0.3.0 multiple objects could be wired.
+	 * Resolves the loaded class, that is used for defined class or interface.
+	 * Class itself is preferred, then class defined by
+	 * {@link Wireable#priorityFor()} and then the first class from
+	 * <code>typeContext</code>.
 	 *
-	 * @param objects
-	 *          the objects
-	 * @throws WireableException
-	 *           the wireable exception
+	 * @param clazz
+	 *          the clazz
+	 * @return the loaded class or <code>null</code>
 	 */
-	public void wireObjects(Object... objects) throws WireableException
+	private Class<?> resolveClass(Class<?> clazz)
 	{
-		for (Object o : objects)
+		if (classContext.containsKey(clazz))
 		{
-			try
+			return clazz;
+		}
+		Class<?> resultClazz = interfaceContext.get(clazz);
+		if (resultClazz == null)
+		{
+			List<Class<?>> classes = typeContext.get(clazz);
+			if (classes != null)
 			{
-				for (Field field : Reflections.findAnnotatedFields(o, Wired.class))
+				resultClazz = classes.get(0);
+			}
+		}
+		return resultClazz;
+	}
+
+	/**
+	 * Creates the index of all superclasses and interfaces of loaded classes.
+	 * Every type points to list of loaded classes, that are assignable to it,
+	 * {@link Wireable} classes are listed first, then they are ordered by
+	 * {@link PriorityLevel} and name.
+	 *
+	 * @return the type context
+	 */
+	private Map<Class<?>, List<Class<?>>> createTypeContext()
+	{
+		Map<Class<?>, List<Class<?>>> result = new HashMap<>();
+		for (Class<?> clazz : getClasses())
+		{
+			Deque<Class<?>> types = new ArrayDeque<>();
+			Set<Class<?>> visited = new HashSet<>();
+			types.add(clazz);
+			while (!types.isEmpty())
+			{
+				Class<?> type = types.poll();
+				if (type != Object.class && visited.add(type))
+				{
+					result.computeIfAbsent(type, k -> new ArrayList<>()).add(clazz);
+					if (type.getSuperclass() != null)
+					{
+						types.add(type.getSuperclass());
+					}
+					types.addAll(Arrays.asList(type.getInterfaces()));
+				}
+			}
+		}
+		for (List<Class<?>> classes : result.values())
+		{
+			classes.sort(Comparator.comparing((Class<?> c) -> !classContext.get(c).isWireable()));
+		}
+		return result;
+	}
+
+	/**
+	 * Sets the parallelism of package scanning done by {@link #init(String)}. If
+	 * it is greater than 1, directories and jar entries are scanned in
+	 * <code>ForkJoinPool</code> with defined parallelism. Order of found classes
+	 * is same in both modes. Default value is 1, that scans on calling thread.
+	 *
+	 * @param scanParallelism
+	 *          the new scan parallelism
+	 * @since 0.4.0
+	 */
+	public void setScanParallelism(int scanParallelism)
+	{
+		if (scanParallelism < 1)
+		{
+			throw new IllegalArgumentException("Scan parallelism must be positive");
+		}
+		this.scanParallelism = scanParallelism;
+	}
+
+	/**
+	 * Sets the file of persistent scan cache. If it is set, result of package
+	 * scanning is stored in this file together with fingerprint of scanned jar
+	 * or directory. Next {@link #init(String)} uses stored result instead of
+	 * scanning, until the fingerprint changes. Fingerprint consists only of
+	 * sizes and last modification times, so class file of directory, that was
+	 * not found and is rewritten in place, is not detected. Default value is
+	 * <code>null</code>, that disables the cache.
+	 *
+	 * @param scanCacheFile
+	 *          the new scan cache file
+	 * @since 0.4.0
+	 */
+	public void setScanCacheFile(File scanCacheFile)
+	{
+		this.scanCacheFile = scanCacheFile;
+	}
+
+	/**
+	 * Sets the executor of {@link OnCreate} methods. Loaded classes are ordered
+	 * into levels by their {@link Wired} dependencies, so {@link OnCreate}
+	 * methods of class are invoked after all classes it depends on have
+	 * finished. If executor is set, classes of the same level and
+	 * {@link PriorityLevel} are handled concurrently by this executor. Default
+	 * value is <code>null</code>, that invokes all methods on calling thread.
+	 *
+	 * @param createExecutor
+	 *          the new create executor
+	 * @since 0.4.0
+	 */
+	public void setCreateExecutor(Executor createExecutor)
+	{
+		this.createExecutor = createExecutor;
+	}
+
+	/**
+	 * Sets the executor of {@link OnStartup} methods. If it is set,
+	 * {@link #init(String...)} invokes {@link OnStartup} methods concurrently as
+	 * {@link #initAsync(String...)} does and waits for them. Bounded pool is
+	 * recommended, since every method with the same {@link PriorityLevel} is
+	 * submitted at once. Default value is <code>null</code>, that invokes all
+	 * methods on calling thread.
+	 *
+	 * @param startupExecutor
+	 *          the new startup executor
+	 * @since 0.4.0
+	 */
+	public void setStartupExecutor(Executor startupExecutor)
+	{
+		this.startupExecutor = startupExecutor;
+	}
+
+	/**
+	 * Gets the future of {@link OnStartup} methods invoked by last init, that
+	 * could be used to check readiness of the container.
+	 *
+	 * @return the startup future, or not completed future if container was not
+	 *         initialized
+	 * @since 0.4.0
+	 */
+	public CompletableFuture<Void> getStartupFuture()
+	{
+		return startupFuture != null ? startupFuture : new CompletableFuture<>();
+	}
+
+	/**
+	 * Gets the classes, that were found during last {@link #init(String)} to
+	 * depend on each other via {@link Wired} fields in cycle. {@link OnCreate}
+	 * methods of classes in one cycle are always invoked sequentially by their
+	 * {@link PriorityLevel} and name.
+	 *
+	 * @return the dependency cycles
+	 * @since 0.4.0
+	 */
+	public List<List<Class<?>>> getDependencyCycles()
+	{
+		return dependencyCycles;
+	}
+
+	/**
+	 * Sets if all {@link Wireable} classes are lazy, as if they had
+	 * {@link Wireable#lazy()} set. Default value is <code>false</code>.
+	 *
+	 * @param lazyByDefault
+	 *          the new lazy by default
+	 * @since 0.4.0
+	 */
+	public void setLazyByDefault(boolean lazyByDefault)
+	{
+		this.lazyByDefault = lazyByDefault;
+	}
+
+	/**
+	 * Gets the count of lazy classes loaded by {@link #init(String)}.
+	 *
+	 * @return the lazy instance count
+	 * @since 0.4.0
+	 */
+	public int getLazyInstanceCount()
+	{
+		return classContext == null ? 0 : (int) classContext.values().stream().filter(BeanWrapper::isLazy).count();
+	}
+
+	/**
+	 * Gets the count of lazy classes, whose instances were already created.
+	 *
+	 * @return the materialized instance count
+	 * @since 0.4.0
+	 */
+	public int getMaterializedInstanceCount()
+	{
+		return classContext == null ? 0 : (int) classContext.values().stream().filter(w -> w.isLazy() && w.isCreated()).count();
+	}
+
+	/**
+	 * Gets the statistics of the last package scan done by
+	 * {@link #init(String)}.
+	 *
+	 * @return the scan statistics, or <code>null</code> if container was not
+	 *         initialized
+	 * @since 0.4.0
+	 */
+	public ScanStatistics getScanStatistics()
+	{
+		return scanStatistics;
+	}
+
+	/**
+	 * Gets the single instance of {@link Wireable} class, that is loaded in
+	 * <code>classContext</code>. This methods access classes loaded in context to
+	 * any class.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @return single instance of Wireable from WireableContext
+	 */
+	public <T> T getInstance(Class<T> clazz)
+	{
+		return getInstance(clazz, true);
+	}
+
+	/**
+	 * Gets the single instance of {@link Wireable} or {@link Unwireable} class,
+	 * that is loaded in <code>classContext</code>. This methods access classes
+	 * loaded in context to any class. If <code>clazz</code> is interface, it
+	 * looks for priority definition into <code>interfaceContext</code>, if
+	 * nothing is found, it uses the first suitable class.<br>
+	 * Since 0.4.0 instance of lazy class is created on first request and all
+	 * interfaces and superclasses of loaded classes are resolved by single lookup
+	 * into <code>typeContext</code>, that is precomputed by init.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @param onlyWireable
+	 *          the only wireable
+	 * @return single instance of Wireable from WireableContext
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getInstance(Class<T> clazz, boolean onlyWireable)
+	{
+		if (interfaceContext == null || classContext == null)
+		{
+			return null;
+		}
+
+		Class<?> resultClazz = resolveClass(clazz);
+		BeanWrapper wrapper = resultClazz != null ? classContext.get(resultClazz) : null;
+		if (wrapper != null && (!onlyWireable || wrapper.isWireable()))
+		{
+			return (T) getInstance(resultClazz, wrapper);
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the instances of all {@link Wireable} classes, that are assignable to
+	 * defined class or interface. Instances are ordered by {@link PriorityLevel}
+	 * and name of their classes, lazy classes are created.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @return the instances
+	 * @since 0.4.0
+	 */
+	public <T> List<T> getInstances(Class<T> clazz)
+	{
+		List<T> result = new ArrayList<>();
+		List<Class<?>> classes = typeContext != null ? typeContext.get(clazz) : null;
+		if (classes != null)
+		{
+			for (Class<?> c : classes)
+			{
+				BeanWrapper wrapper = classContext.get(c);
+				if (wrapper.isWireable())
+				{
+					result.add(clazz.cast(getInstance(c, wrapper)));
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the instance, that is wired into {@link Wired} field of defined type.
+	 * It works as {@link #getInstance(Class)}, but if <code>clazz</code> is
+	 * interface implemented by lazy class, that was not created yet, it returns
+	 * proxy of the interface, that creates the instance on first method call.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the type of field
+	 * @return the instance
+	 * @since 0.4.0
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getWiredInstance(Class<T> clazz)
+	{
+		if (interfaceContext == null || classContext == null)
+		{
+			return null;
+		}
+
+		Class<?> resultClazz = resolveClass(clazz);
+		BeanWrapper wrapper = resultClazz != null ? classContext.get(resultClazz) : null;
+		if (wrapper == null || !wrapper.isWireable())
+		{
+			return null;
+		}
+		if (!clazz.isInterface() || wrapper.isCreated())
+		{
+			return (T) getInstance(resultClazz, wrapper);
+		}
+		return (T) Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[]
+		{ clazz }, (proxy, method, args) -> {
+			Object instance = getInstance(resultClazz, wrapper);
+			return BeanAccessor.of(instance.getClass()).getInvoker(method).invoke(instance, args != null ? args : new Object[0]);
+		});
+	}
+
+	/**
+	 * Fire events, that are pre-loaded in <code>eventContext</code>. All possible
+	 * <code>params</code> are passed, but there is no argument type check, if
+	 * mismatch occurs, <code>WireableException</code> is thrown.<br>
+	 * Since 0.4.0 instances and invokers of methods are bound to event by init,
+	 * so firing of event is single lookup followed by invocations. Methods with
+	 * wildcard event names, see {@link OnEvent}, are resolved on first event and
+	 * cached per event name.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @param params
+	 *          the params
+	 * @throws WireableException
+	 *           the wireable exception
+	 * @since 0.2.0
+	 */
+	public void fireEvent(String eventName, Object... params) throws WireableException
+	{
+		EventDispatcher dispatcher = eventContext != null ? eventContext.getDispatcher(eventName) : null;
+		if (dispatcher != null)
+		{
+			dispatcher.dispatch(params);
+		}
+	}
+
+	/**
+	 * Gets the event context of last init.
+	 *
+	 * @return the event context
+	 */
+	EventRouter getEventContext()
+	{
+		return eventContext;
+	}
+
+	/**
+	 * Gets the handle of event, that fires the event without lookup of event
+	 * name. The handle could be created before init, event is resolved on its
+	 * first fire after init.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @return the event handle
+	 * @since 0.4.0
+	 */
+	public EventHandle event(String eventName)
+	{
+		return new EventHandle(this, eventName);
+	}
+
+	/**
+	 * Publishes typed event. All {@link OnEvent} methods without event name,
+	 * whose parameter is class of <code>event</code>, its superclass or
+	 * interface, are invoked with <code>event</code>. Methods of every event
+	 * class are resolved once.
+	 *
+	 * @param event
+	 *          the event
+	 * @throws WireableException
+	 *           the wireable exception
+	 * @since 0.4.0
+	 */
+	public void publish(Object event) throws WireableException
+	{
+		if (event != null)
+		{
+			typedEventContext.get(event.getClass()).dispatch(new Object[]
+			{ event });
+		}
+	}
+
+	/**
+	 * Publishes asynchronous typed event by event executor, see
+	 * {@link #publish(Object)}. Exception is handled by <code>handler</code>,
+	 * or printed if it is <code>null</code>.
+	 *
+	 * @param event
+	 *          the event
+	 * @param handler
+	 *          the handler
+	 * @since 0.4.0
+	 */
+	public void publishAsync(Object event, WireableExceptionHandler handler)
+	{
+		if (event != null)
+		{
+			fireAsync(typedEventContext.get(event.getClass()), new Object[]
+			{ event }, handler);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see WireableContext#fireEventAsync(String, WireableExceptionHandler,
+	 * Object...)
+	 */
+	public void fireEventAsync(String eventName, Object... params)
+	{
+		fireEventAsync(eventName, null, params);
+	}
+
+	/**
+	 * Fire asynchronous events, that are pre-loaded in <code>eventContext</code>.
+	 * All possible <code>params</code> are passed, but there is no argument type
+	 * check, if mismatch occurs, it tries to handle exception with
+	 * {@link WireableExceptionHandler} if is presented in params.<br>
+	 * Since 0.4.0 events are handled by event executor instead of new thread per
+	 * event, see {@link #setEventExecutor(ExecutorService)}.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @param handler
+	 *          the handler
+	 * @param params
+	 *          the params
+	 * @since 0.3.0
+	 */
+	public void fireEventAsync(String eventName, WireableExceptionHandler handler, Object... params)
+	{
+		fireAsync(eventContext != null ? eventContext.getDispatcher(eventName) : null, params, handler);
+	}
+
+	/**
+	 * Fires event and gathers results of its methods. All methods of event are
+	 * invoked concurrently by event executor and returned future completes
+	 * with value or exception of every method in order of methods, after all
+	 * of them have finished. If <code>timeout</code> is greater than 0, future
+	 * completes after the timeout at the latest, methods, that have not
+	 * finished, have {@link java.util.concurrent.TimeoutException}.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @param timeout
+	 *          the timeout, 0 for no timeout
+	 * @param unit
+	 *          the time unit
+	 * @param params
+	 *          the params
+	 * @return the future of results
+	 * @since 0.4.0
+	 */
+	public CompletableFuture<List<EventResult>> gatherEvent(String eventName, long timeout, TimeUnit unit, Object... params)
+	{
+		EventDispatcher dispatcher = eventContext != null ? eventContext.getDispatcher(eventName) : null;
+		if (dispatcher == null)
+		{
+			return CompletableFuture.completedFuture(Collections.emptyList());
+		}
+		return dispatcher.gather(params, getEventExecutor(), unit.toMillis(timeout));
+	}
+
+	/**
+	 * Fires asynchronous event by dispatcher. Event is executed by event
+	 * executor, or posted into mailboxes of listeners, see
+	 * {@link #setEventMailboxes(boolean)}.
+	 *
+	 * @param dispatcher
+	 *          the dispatcher, or <code>null</code> if event has no methods
+	 * @param params
+	 *          the params
+	 * @param handler
+	 *          the handler
+	 */
+	void fireAsync(EventDispatcher dispatcher, Object[] params, WireableExceptionHandler handler)
+	{
+		if (dispatcher == null)
+		{
+			return;
+		}
+		if (dispatcher.getDelivery() != null)
+		{
+			dispatcher.getDelivery().publish(params, handler);
+		}
+		else if (eventMailboxes)
+		{
+			dispatcher.post(params, handler);
+		}
+		else
+		{
+			executeEvent(() -> dispatcher.dispatch(params), handler);
+		}
+	}
+
+	/**
+	 * Executes the firing of event by event executor. Exception is handled by
+	 * <code>handler</code>, or printed if it is <code>null</code>.
+	 *
+	 * @param task
+	 *          the task
+	 * @param handler
+	 *          the handler
+	 */
+	void executeEvent(EventDispatcher.Task task, WireableExceptionHandler handler)
+	{
+		getEventExecutor().execute(toRunnable(task, handler));
+	}
+
+	/**
+	 * Executes the firing of event by event executor, only if the executor
+	 * accepts it without waiting and without running it on calling thread.
+	 *
+	 * @param task
+	 *          the task
+	 * @param handler
+	 *          the handler
+	 * @return true, if task was accepted
+	 */
+	boolean tryExecuteEvent(EventDispatcher.Task task, WireableExceptionHandler handler)
+	{
+		return EventExecutors.tryExecute(getEventExecutor(), toRunnable(task, handler));
+	}
+
+	/**
+	 * Converts the firing of event into runnable. Exception is handled by
+	 * <code>handler</code>, or printed if it is <code>null</code>.
+	 *
+	 * @param task
+	 *          the task
+	 * @param handler
+	 *          the handler
+	 * @return the runnable
+	 */
+	private static Runnable toRunnable(EventDispatcher.Task task, WireableExceptionHandler handler)
+	{
+		return () -> {
+			try
+			{
+				task.run();
+			}
+			catch (WireableException e)
+			{
+				if (handler != null)
+				{
+					handler.handleException(e);
+				}
+				else
+				{
+					e.printStackTrace();
+				}
+			}
+		};
+	}
+
+	/**
+	 * Gets the event executor, that is created on first asynchronous event, if
+	 * it was not set. Created executor is read without lock.
+	 *
+	 * @return the event executor
+	 */
+	private ExecutorService getEventExecutor()
+	{
+		ExecutorService result = eventExecutor;
+		if (result == null)
+		{
+			synchronized (this)
+			{
+				result = eventExecutor;
+				if (result == null)
+				{
+					if (eventVirtualThreads)
+					{
+						result = EventExecutors.newVirtualThreadExecutor();
+					}
+					if (result == null)
+					{
+						result = EventExecutors.newBoundedPool(eventThreads, eventQueueCapacity, eventRejectionPolicy, droppedEvents);
+					}
+					eventExecutor = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks, that event executor was not created yet, so settings of default
+	 * event executor are not ignored. Must be called while holding the lock of
+	 * container.
+	 *
+	 * @throws IllegalStateException
+	 *           if event executor is already created
+	 */
+	private void checkEventExecutor()
+	{
+		if (eventExecutor != null)
+		{
+			throw new IllegalStateException("Event executor is already created, settings could be changed only before first asynchronous event or after shutdown");
+		}
+	}
+
+	/**
+	 * Sets the executor of asynchronous events. Container takes ownership of the
+	 * executor and shuts it down in {@link #shutdown(long, TimeUnit)}. If it is
+	 * not set, bounded pool defined by {@link #setEventThreads(int)},
+	 * {@link #setEventQueueCapacity(int)} and
+	 * {@link #setEventRejectionPolicy(RejectionPolicy)} is created on first
+	 * asynchronous event.
+	 *
+	 * @param eventExecutor
+	 *          the new event executor
+	 * @since 0.4.0
+	 */
+	public synchronized void setEventExecutor(ExecutorService eventExecutor)
+	{
+		this.eventExecutor = eventExecutor;
+	}
+
+	/**
+	 * Sets the count of threads of default event executor. Default value is
+	 * count of available processors.
+	 *
+	 * @param eventThreads
+	 *          the new event threads
+	 * @throws IllegalStateException
+	 *           if event executor is already created
+	 * @since 0.4.0
+	 */
+	public synchronized void setEventThreads(int eventThreads)
+	{
+		if (eventThreads < 1)
+		{
+			throw new IllegalArgumentException("Event threads must be positive");
+		}
+		checkEventExecutor();
+		this.eventThreads = eventThreads;
+	}
+
+	/**
+	 * Sets the capacity of queue of default event executor. Default value is
+	 * 1024.
+	 *
+	 * @param eventQueueCapacity
+	 *          the new event queue capacity
+	 * @throws IllegalStateException
+	 *           if event executor is already created
+	 * @since 0.4.0
+	 */
+	public synchronized void setEventQueueCapacity(int eventQueueCapacity)
+	{
+		if (eventQueueCapacity < 1)
+		{
+			throw new IllegalArgumentException("Event queue capacity must be positive");
+		}
+		checkEventExecutor();
+		this.eventQueueCapacity = eventQueueCapacity;
+	}
+
+	/**
+	 * Sets the policy of default event executor, that is applied if its queue is
+	 * full. Default value is {@link RejectionPolicy#BLOCK}.
+	 *
+	 * @param eventRejectionPolicy
+	 *          the new event rejection policy
+	 * @throws IllegalStateException
+	 *           if event executor is already created
+	 * @since 0.4.0
+	 */
+	public synchronized void setEventRejectionPolicy(RejectionPolicy eventRejectionPolicy)
+	{
+		if (eventRejectionPolicy == null)
+		{
+			throw new IllegalArgumentException("Event rejection policy must not be null");
+		}
+		checkEventExecutor();
+		this.eventRejectionPolicy = eventRejectionPolicy;
+	}
+
+	/**
+	 * Sets if default event executor starts virtual thread per event. Virtual
+	 * threads are used only on Java 21+, bounded pool is used on older Java.
+	 *
+	 * @param eventVirtualThreads
+	 *          the new event virtual threads
+	 * @throws IllegalStateException
+	 *           if event executor is already created
+	 * @since 0.4.0
+	 */
+	public synchronized void setEventVirtualThreads(boolean eventVirtualThreads)
+	{
+		checkEventExecutor();
+		this.eventVirtualThreads = eventVirtualThreads;
+	}
+
+	/**
+	 * Sets if asynchronous events are delivered by mailboxes. Every class with
+	 * {@link OnEvent} methods has its own mailbox, that is handled by event
+	 * executor, so asynchronous events of one class are handled one after
+	 * another in order they were fired and slow class does not delay other
+	 * classes. Firing of event does not take any lock, unless the mailbox has
+	 * to be scheduled on event executor. Default value is <code>false</code>,
+	 * that handles all methods of event by one task of event executor.
+	 *
+	 * @param eventMailboxes
+	 *          the new event mailboxes
+	 * @since 0.4.0
+	 */
+	public void setEventMailboxes(boolean eventMailboxes)
+	{
+		this.eventMailboxes = eventMailboxes;
+	}
+
+	/**
+	 * Sets the ring buffer of asynchronous events of defined event name, that
+	 * is created by next init. Events fired by
+	 * {@link #fireEventAsync(String, Object...)} are copied into preallocated
+	 * slots of the ring and handled by its own consumer thread in order they
+	 * were fired. If the ring is full, firing thread waits for free slot.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @param bufferSize
+	 *          the count of slots, power of 2
+	 * @param waitStrategy
+	 *          the wait strategy of consumer and firing threads
+	 * @since 0.4.0
+	 */
+	public void setEventRing(String eventName, int bufferSize, WaitStrategy waitStrategy)
+	{
+		if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1)
+		{
+			throw new IllegalArgumentException("Event ring size must be power of 2");
+		}
+		eventDeliveryFactories.put(eventName, dispatcher -> new EventRing(eventName, dispatcher, bufferSize, waitStrategy));
+	}
+
+	/**
+	 * Sets the bounded queue of asynchronous events of defined event name, that
+	 * is created by next init. Events of the queue are handled by event
+	 * executor one after another in order they were queued. If the queue is
+	 * full, new event is handled by defined {@link OverflowPolicy}. Counts of
+	 * events are available by {@link #getEventQueueStatistics(String)}.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @param capacity
+	 *          the capacity of queue
+	 * @param policy
+	 *          the overflow policy
+	 * @param blockTimeout
+	 *          the maximum time in milliseconds, that caller waits by
+	 *          {@link OverflowPolicy#BLOCK}
+	 * @since 0.4.0
+	 */
+	public void setEventQueue(String eventName, int capacity, OverflowPolicy policy, long blockTimeout)
+	{
+		if (capacity < 1)
+		{
+			throw new IllegalArgumentException("Event queue capacity must be positive");
+		}
+		eventDeliveryFactories.put(eventName, dispatcher -> new EventQueue(dispatcher, capacity, policy, blockTimeout, this::getEventExecutor));
+	}
+
+	/**
+	 * Gets the statistics of queue of defined event name.
+	 *
+	 * @param eventName
+	 *          the event name, as it was passed to
+	 *          {@link #setEventQueue(String, int, OverflowPolicy, long)}
+	 * @return the event queue statistics, or <code>null</code> if event does not
+	 *         have queue
+	 * @since 0.4.0
+	 */
+	public EventQueueStatistics getEventQueueStatistics(String eventName)
+	{
+		EventDelivery delivery = eventDeliveries.get(eventName);
+		return delivery instanceof EventQueue ? ((EventQueue) delivery).getStatistics() : null;
+	}
+
+	/**
+	 * Gets the count of asynchronous events, that were dropped by
+	 * {@link RejectionPolicy#DROP}.
+	 *
+	 * @return the dropped events
+	 * @since 0.4.0
+	 */
+	public long getDroppedEvents()
+	{
+		return droppedEvents.get();
+	}
+
+	/**
+	 * Shuts down the event executor. Already fired asynchronous events are
+	 * handled, new default executor is created by next asynchronous event.
+	 * Buffered events of batch methods are delivered on calling thread. Event
+	 * rings and event queues are stopped first and they reject events fired
+	 * afterwards, until next init.
+	 *
+	 * @param timeout
+	 *          the maximum time to wait for fired events
+	 * @param unit
+	 *          the time unit
+	 * @return true, if all fired events were handled
+	 * @throws InterruptedException
+	 *           the interrupted exception
+	 * @since 0.4.0
+	 */
+	public boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		boolean result = true;
+		for (EventDelivery delivery : eventDeliveries.values())
+		{
+			result &= delivery.stop(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 0));
+		}
+		ExecutorService executor;
+		synchronized (this)
+		{
+			executor = eventExecutor;
+			eventExecutor = null;
+		}
+		if (executor != null)
+		{
+			executor.shutdown();
+			result &= executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+		for (BatchListener listener : batchListeners)
+		{
+			try
+			{
+				listener.flush();
+			}
+			catch (WireableException e)
+			{
+				e.printStackTrace();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Wire all {@link Wireable} fields defined by {@link Wired} annotation in
+	 * object. Since 0.3.0 multiple objects could be wired. Since 0.4.0 fields and
+	 * their target instances are resolved once per class after initialization,
+	 * so repeated calls do not use reflection.
+	 *
+	 * @param objects
+	 *          the objects
+	 * @throws WireableException
+	 *           the wireable exception
+	 */
+	public void wireObjects(Object... objects) throws WireableException
+	{
+		for (Object o : objects)
+		{
+			try
+			{
+				if (loaded)
+				{
+					injectionPlans.get(o.getClass()).wire(o);
+				}
+				else
 				{
-					field.setAccessible(true);
-					field.set(o, getInstance(field.getType()));
+					BeanAccessor.of(o.getClass()).wire(o, this);
 				}
 			}
 			catch (Exception e)
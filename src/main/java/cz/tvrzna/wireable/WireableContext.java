@@ -1,5 +1,9 @@
 package cz.tvrzna.wireable;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import cz.tvrzna.wireable.annotations.OnCreate;
 import cz.tvrzna.wireable.annotations.OnEvent;
 import cz.tvrzna.wireable.annotations.OnStartup;
@@ -7,6 +11,7 @@ import cz.tvrzna.wireable.annotations.Unwireable;
 import cz.tvrzna.wireable.annotations.Wireable;
 import cz.tvrzna.wireable.annotations.Wired;
 import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.EventResult;
 import cz.tvrzna.wireable.helpers.WireableExceptionHandler;
 
 /**
@@ -97,6 +102,38 @@ public final class WireableContext
 		getInstance().init(strPackage);
 	}
 
+	/**
+	 * Inits Wireable and Unwireable in all classes, that are found in any of
+	 * defined <code>packages</code>.
+	 *
+	 * @param packages
+	 *          the packages
+	 * @throws WireableException
+	 *           the wireable exception
+	 * @see WireableContainer#init(String...)
+	 * @since 0.4.0
+	 */
+	public static void init(String... packages) throws WireableException
+	{
+		getInstance().init(packages);
+	}
+
+	/**
+	 * Inits context asynchronously.
+	 *
+	 * @param packages
+	 *          the packages
+	 * @return the future of startup
+	 * @throws WireableException
+	 *           the wireable exception
+	 * @see WireableContainer#initAsync(String...)
+	 * @since 0.4.0
+	 */
+	public static CompletableFuture<Void> initAsync(String... packages) throws WireableException
+	{
+		return getInstance().initAsync(packages);
+	}
+
 	/**
 	 * Gets the single instance of {@link Wireable} class, that is loaded in
 	 * <code>classContext</code>. This methods access classes loaded in context to
@@ -136,6 +173,23 @@ public final class WireableContext
 		return getInstance().getInstance(clazz, onlyWireable);
 	}
 
+	/**
+	 * Gets the instances of all {@link Wireable} classes, that are assignable to
+	 * defined class or interface.
+	 *
+	 * @param <T>
+	 *          the generic type
+	 * @param clazz
+	 *          the clazz
+	 * @return the instances
+	 * @see WireableContainer#getInstances(Class)
+	 * @since 0.4.0
+	 */
+	public static <T> List<T> getInstances(Class<T> clazz)
+	{
+		return getInstance().getInstances(clazz);
+	}
+
 	/**
 	 * Fire events, that are pre-loaded in <code>eventContext</code>. All possible
 	 * <code>params</code> are passed, but there is no argument type check, if
@@ -191,6 +245,71 @@ public final class WireableContext
 		getInstance().fireEventAsync(eventName, handler, params);
 	}
 
+	/**
+	 * Fires event and gathers results of its methods.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @param timeout
+	 *          the timeout, 0 for no timeout
+	 * @param unit
+	 *          the time unit
+	 * @param params
+	 *          the params
+	 * @return the future of results
+	 * @see WireableContainer#gatherEvent(String, long, TimeUnit, Object...)
+	 * @since 0.4.0
+	 */
+	public static CompletableFuture<List<EventResult>> gatherEvent(String eventName, long timeout, TimeUnit unit, Object... params)
+	{
+		return getInstance().gatherEvent(eventName, timeout, unit, params);
+	}
+
+	/**
+	 * Gets the handle of event, that fires the event without lookup of event
+	 * name.
+	 *
+	 * @param eventName
+	 *          the event name
+	 * @return the event handle
+	 * @see WireableContainer#event(String)
+	 * @since 0.4.0
+	 */
+	public static EventHandle event(String eventName)
+	{
+		return getInstance().event(eventName);
+	}
+
+	/**
+	 * Publishes typed event.
+	 *
+	 * @param event
+	 *          the event
+	 * @throws WireableException
+	 *           the wireable exception
+	 * @see WireableContainer#publish(Object)
+	 * @since 0.4.0
+	 */
+	public static void publish(Object event) throws WireableException
+	{
+		getInstance().publish(event);
+	}
+
+	/**
+	 * Publishes asynchronous typed event.
+	 *
+	 * @param event
+	 *          the event
+	 * @param handler
+	 *          the handler
+	 * @see WireableContainer#publishAsync(Object, WireableExceptionHandler)
+	 * @since 0.4.0
+	 */
+	public static void publishAsync(Object event, WireableExceptionHandler handler)
+	{
+		getInstance().publishAsync(event, handler);
+	}
+
 	/**
 	 * Wire all {@link Wireable} fields defined by {@link Wired} annotation in
 	 * object. Since 0.3.0 multiple objects could be wired.
@@ -205,4 +324,22 @@ public final class WireableContext
 	{
 		getInstance().wireObjects(objects);
 	}
+
+	/**
+	 * Shuts down the event executor of context.
+	 *
+	 * @param timeout
+	 *          the maximum time to wait for fired events
+	 * @param unit
+	 *          the time unit
+	 * @return true, if all fired events were handled
+	 * @throws InterruptedException
+	 *           the interrupted exception
+	 * @see WireableContainer#shutdown(long, TimeUnit)
+	 * @since 0.4.0
+	 */
+	public static boolean shutdown(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return getInstance().shutdown(timeout, unit);
+	}
 }
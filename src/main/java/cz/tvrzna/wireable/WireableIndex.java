@@ -0,0 +1,103 @@
+package cz.tvrzna.wireable;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import cz.tvrzna.wireable.processor.WireableProcessor;
+
+/**
+ * The utility class that reads <code>META-INF/wireable/index</code> resources
+ * generated by {@link WireableProcessor}.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class WireableIndex
+{
+
+	/**
+	 * Instantiates a new wireable index.
+	 */
+	private WireableIndex()
+	{
+	}
+
+	/**
+	 * Find names of all indexed classes in defined package and its subpackages.
+	 * All index resources available in classpath are read.
+	 *
+	 * @param packageName
+	 *          the package name
+	 * @return sorted list of class names, empty if nothing is indexed
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	static List<String> findClassNames(String packageName) throws IOException
+	{
+		TreeSet<String> classNames = new TreeSet<>();
+		for (List<String> rootClassNames : findClassNamesByRoot(packageName).values())
+		{
+			classNames.addAll(rootClassNames);
+		}
+		return new ArrayList<>(classNames);
+	}
+
+	/**
+	 * Find names of all indexed classes in defined packages and their
+	 * subpackages by classpath roots, that contain index resource. Root is the
+	 * URL of index resource without its location, so it could be compared with
+	 * roots of packages found by {@link ClassScanner}.
+	 *
+	 * @param packageNames
+	 *          the package names
+	 * @return the map of roots and their sorted class names, root without
+	 *         classes in packages has empty list
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	static Map<String, List<String>> findClassNamesByRoot(String... packageNames) throws IOException
+	{
+		Map<String, List<String>> result = new LinkedHashMap<>();
+		Enumeration<URL> resources = Thread.currentThread().getContextClassLoader().getResources(WireableProcessor.INDEX);
+		while (resources.hasMoreElements())
+		{
+			URL url = resources.nextElement();
+			String root = url.toString();
+			root = root.substring(0, root.length() - WireableProcessor.INDEX.length());
+
+			TreeSet<String> classNames = new TreeSet<>();
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8)))
+			{
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					if (line.isEmpty() || Character.isWhitespace(line.charAt(0)))
+					{
+						continue;
+					}
+					int end = line.indexOf(' ');
+					String className = end < 0 ? line : line.substring(0, end);
+					for (String packageName : packageNames)
+					{
+						if (className.startsWith(packageName.concat(".")))
+						{
+							classNames.add(className);
+							break;
+						}
+					}
+				}
+			}
+			result.put(root, new ArrayList<>(classNames));
+		}
+		return result;
+	}
+}
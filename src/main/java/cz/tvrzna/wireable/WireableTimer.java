@@ -0,0 +1,48 @@
+package cz.tvrzna.wireable;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The shared timer of startup timeouts and event batches, that is created on
+ * first use. Scheduled tasks must be short, long work is passed to other
+ * executors.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+final class WireableTimer
+{
+	private static final ScheduledThreadPoolExecutor INSTANCE = new ScheduledThreadPoolExecutor(1, r -> {
+		Thread thread = new Thread(r, "wireable-timer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static
+	{
+		INSTANCE.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Instantiates a new wireable timer.
+	 */
+	private WireableTimer()
+	{
+	}
+
+	/**
+	 * Schedules the task after defined delay.
+	 *
+	 * @param task
+	 *          the task
+	 * @param delay
+	 *          the delay in milliseconds
+	 * @return the scheduled future
+	 */
+	static ScheduledFuture<?> schedule(Runnable task, long delay)
+	{
+		return INSTANCE.schedule(task, delay, TimeUnit.MILLISECONDS);
+	}
+}
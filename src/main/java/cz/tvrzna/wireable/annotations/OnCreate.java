@@ -31,4 +31,13 @@ public @interface OnCreate
 	 * @return the on create priority
 	 */
 	PriorityLevel priority() default PriorityLevel.NORMAL;
+
+	/**
+	 * Order of method among methods with the same priority. Methods with lower
+	 * order are invoked first.
+	 *
+	 * @since 0.4.0
+	 * @return the on create order
+	 */
+	int order() default 0;
 }
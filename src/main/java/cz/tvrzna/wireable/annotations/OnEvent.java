@@ -10,7 +10,13 @@ import java.lang.annotation.Target;
 
 /**
  * This annotation defines methods, that are invoked on
- * <code>WireableContext.fireEvent()</code>.
+ * <code>WireableContext.fireEvent()</code>.<br>
+ * Since 0.4.0 method without event name is invoked on
+ * <code>WireableContext.publish()</code> of object, that is instance of its only
+ * parameter. Event name could contain wildcard segments separated by
+ * <code>.</code>, where <code>*</code> matches exactly one segment and
+ * <code>#</code> matches zero or more segments, e.g. <code>order.*</code> or
+ * <code>user.#</code>.
  *
  * @author michalt
  * @since 0.2.0
@@ -21,5 +27,52 @@ import java.lang.annotation.Target;
 @Repeatable(OnEvents.class)
 public @interface OnEvent
 {
-	String value();
+	/**
+	 * Name of event. If it is empty, method must have one parameter, whose type
+	 * defines the event.
+	 *
+	 * @return the event name
+	 */
+	String value() default "";
+
+	/**
+	 * Maximal count of events delivered in one batch. If it is greater than 0
+	 * or {@link #batchDelay()} is set, method must have one <code>List</code>
+	 * parameter, that receives first params of buffered events. Batching and
+	 * coalescing require {@link #value()}, typed event method with any of them
+	 * is rejected by init.
+	 *
+	 * @since 0.4.0
+	 * @return the batch size
+	 */
+	int batchSize() default 0;
+
+	/**
+	 * Maximal delay in milliseconds between first buffered event and delivery of
+	 * batch. Default value 0 means, that batch is delivered only when it reaches
+	 * {@link #batchSize()}.
+	 *
+	 * @since 0.4.0
+	 * @return the batch delay
+	 */
+	long batchDelay() default 0;
+
+	/**
+	 * Defines, if equal events buffered into one batch are delivered only once.
+	 *
+	 * @since 0.4.0
+	 * @return the coalesce
+	 */
+	boolean coalesce() default false;
+
+	/**
+	 * Name of property of buffered events, whose equal values are coalesced.
+	 * Property is read by no-arg method with the same name, its getter or field.
+	 * The latest event of every key is delivered at position of the first event
+	 * with the key. If it is set, {@link #coalesce()} is implied.
+	 *
+	 * @since 0.4.0
+	 * @return the coalesce key
+	 */
+	String coalesceKey() default "";
 }
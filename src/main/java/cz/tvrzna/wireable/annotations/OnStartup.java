@@ -32,4 +32,22 @@ public @interface OnStartup
 	 */
 	PriorityLevel priority() default PriorityLevel.NORMAL;
 
+	/**
+	 * Order of method among methods with the same priority. Methods with lower
+	 * order are invoked first.
+	 *
+	 * @since 0.4.0
+	 * @return the on startup order
+	 */
+	int order() default 0;
+
+	/**
+	 * Timeout of method in milliseconds, that is checked, if
+	 * <code>OnStartup</code> methods are invoked asynchronously. Method running
+	 * longer is reported as failed. Default value 0 means no timeout.
+	 *
+	 * @since 0.4.0
+	 * @return the on startup timeout
+	 */
+	long timeout() default 0;
 }
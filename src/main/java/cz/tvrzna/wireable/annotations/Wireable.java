@@ -39,4 +39,14 @@ public @interface Wireable
 	 * @return the priority level
 	 */
 	PriorityLevel priority() default PriorityLevel.NORMAL;
+
+	/**
+	 * Lazy class is not created during initialization of context, but on first
+	 * request of its instance. Then it is created, wired and its
+	 * <code>OnCreate</code> and <code>OnStartup</code> methods are invoked.
+	 *
+	 * @since 0.4.0
+	 * @return true, if class is lazy
+	 */
+	boolean lazy() default false;
 }
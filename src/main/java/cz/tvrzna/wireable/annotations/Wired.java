@@ -1,5 +1,6 @@
 package cz.tvrzna.wireable.annotations;
 
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
@@ -10,7 +11,10 @@ import java.lang.annotation.Target;
 /**
  * This annotation defines members of {@link Wireable} classes, that are
  * injected from <code>WireableContext</code>. If this annotation is used in
- * classes, that are not {@link Wireable}, they will not be injected.
+ * classes, that are not {@link Wireable}, they will not be injected.<br>
+ * Since 0.4.0 it could be used on constructor, whose parameters are injected
+ * while the instance is created. Constructor is used as well without this
+ * annotation, if it is the only declared constructor of class.
  *
  * @since 0.1.0
  * @author michalt
@@ -18,7 +22,7 @@ import java.lang.annotation.Target;
  */
 @Documented
 @Retention(RUNTIME)
-@Target(FIELD)
+@Target({ FIELD, CONSTRUCTOR })
 public @interface Wired
 {
 }
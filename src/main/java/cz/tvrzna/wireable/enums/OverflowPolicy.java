@@ -0,0 +1,21 @@
+package cz.tvrzna.wireable.enums;
+
+/**
+ * This enumeration defines, what happens with asynchronous event, if the queue
+ * of its event name is full.
+ *
+ * @since 0.4.0
+ * @author michalt
+ *
+ */
+public enum OverflowPolicy
+{
+	/** Caller waits for space in the queue until timeout, then event is dropped. */
+	BLOCK,
+	/** New event is dropped. */
+	DROP_NEWEST,
+	/** The oldest event in the queue is dropped. */
+	DROP_OLDEST,
+	/** Event is handled on the calling thread. */
+	CALLER_RUNS;
+}
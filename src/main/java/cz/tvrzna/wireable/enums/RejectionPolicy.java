@@ -0,0 +1,19 @@
+package cz.tvrzna.wireable.enums;
+
+/**
+ * This enumeration defines, what happens with asynchronous event, if the queue
+ * of event executor is full.
+ *
+ * @since 0.4.0
+ * @author michalt
+ *
+ */
+public enum RejectionPolicy
+{
+	/** Caller waits until there is space in the queue. */
+	BLOCK,
+	/** Event is handled on the calling thread. */
+	CALLER_RUNS,
+	/** Event is dropped and counted. */
+	DROP;
+}
@@ -0,0 +1,19 @@
+package cz.tvrzna.wireable.enums;
+
+/**
+ * This enumeration defines, how consumer of event ring waits for next event
+ * and how producer waits for free slot of full ring.
+ *
+ * @since 0.4.0
+ * @author michalt
+ *
+ */
+public enum WaitStrategy
+{
+	/** Thread spins, that gives the lowest latency, but occupies whole CPU. */
+	BUSY_SPIN,
+	/** Thread spins and yields to other threads. */
+	YIELD,
+	/** Thread parks for short time, that saves CPU, but increases latency. */
+	PARK;
+}
@@ -0,0 +1,99 @@
+package cz.tvrzna.wireable.helpers;
+
+/**
+ * The Class EventQueueStatistics holds counts of asynchronous events, that
+ * passed through the queue of one event name.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+public class EventQueueStatistics
+{
+	private final long enqueued;
+	private final long dispatched;
+	private final long dropped;
+	private final long blocked;
+	private final int depth;
+
+	/**
+	 * Instantiates a new event queue statistics.
+	 *
+	 * @param enqueued
+	 *          the enqueued events
+	 * @param dispatched
+	 *          the dispatched events
+	 * @param dropped
+	 *          the dropped events
+	 * @param blocked
+	 *          the blocked events
+	 * @param depth
+	 *          the current depth
+	 */
+	public EventQueueStatistics(long enqueued, long dispatched, long dropped, long blocked, int depth)
+	{
+		this.enqueued = enqueued;
+		this.dispatched = dispatched;
+		this.dropped = dropped;
+		this.blocked = blocked;
+		this.depth = depth;
+	}
+
+	/**
+	 * Gets the count of events, that were put into the queue.
+	 *
+	 * @return the enqueued events
+	 */
+	public long getEnqueued()
+	{
+		return enqueued;
+	}
+
+	/**
+	 * Gets the count of events, that were handled by listeners, including events
+	 * handled on calling thread.
+	 *
+	 * @return the dispatched events
+	 */
+	public long getDispatched()
+	{
+		return dispatched;
+	}
+
+	/**
+	 * Gets the count of events, that were dropped.
+	 *
+	 * @return the dropped events
+	 */
+	public long getDropped()
+	{
+		return dropped;
+	}
+
+	/**
+	 * Gets the count of events, whose callers had to wait for space in the
+	 * queue.
+	 *
+	 * @return the blocked events
+	 */
+	public long getBlocked()
+	{
+		return blocked;
+	}
+
+	/**
+	 * Gets the count of events waiting in the queue.
+	 *
+	 * @return the depth
+	 */
+	public int getDepth()
+	{
+		return depth;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EventQueueStatistics [enqueued=" + enqueued + ", dispatched=" + dispatched + ", dropped=" + dropped + ", blocked=" + blocked + ", depth=" + depth
+				+ "]";
+	}
+}
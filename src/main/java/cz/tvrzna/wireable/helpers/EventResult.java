@@ -0,0 +1,83 @@
+package cz.tvrzna.wireable.helpers;
+
+/**
+ * The Class EventResult holds result of one <code>OnEvent</code> method, that
+ * was invoked by <code>gatherEvent</code>. It contains either value returned
+ * by the method, or exception thrown by the method.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+public class EventResult
+{
+	private final String method;
+	private final Object value;
+	private final Throwable exception;
+
+	/**
+	 * Instantiates a new event result.
+	 *
+	 * @param method
+	 *          the name of method including its class
+	 * @param value
+	 *          the value returned by method
+	 * @param exception
+	 *          the exception thrown by method, or <code>null</code>
+	 */
+	public EventResult(String method, Object value, Throwable exception)
+	{
+		this.method = method;
+		this.value = value;
+		this.exception = exception;
+	}
+
+	/**
+	 * Gets the name of method including its class, e.g.
+	 * <code>com.example.Users.onQuery</code>, so methods of the same name in
+	 * different classes are distinguished.
+	 *
+	 * @return the method
+	 */
+	public String getMethod()
+	{
+		return method;
+	}
+
+	/**
+	 * Gets the value returned by method, <code>null</code> for void methods.
+	 *
+	 * @return the value
+	 */
+	public Object getValue()
+	{
+		return value;
+	}
+
+	/**
+	 * Gets the exception thrown by method, or
+	 * <code>java.util.concurrent.TimeoutException</code> if method did not
+	 * finish in time.
+	 *
+	 * @return the exception, or <code>null</code> if method succeeded
+	 */
+	public Throwable getException()
+	{
+		return exception;
+	}
+
+	/**
+	 * Checks if method succeeded.
+	 *
+	 * @return true, if method succeeded
+	 */
+	public boolean isSuccess()
+	{
+		return exception == null;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "EventResult [method=" + method + ", value=" + value + ", exception=" + exception + "]";
+	}
+}
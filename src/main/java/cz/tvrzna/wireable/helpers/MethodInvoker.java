@@ -0,0 +1,28 @@
+package cz.tvrzna.wireable.helpers;
+
+/**
+ * The Interface MethodInvoker defines functional interface for invocation of
+ * one method of <code>Wireable</code> class.
+ *
+ * @author michalt
+ * @param <T>
+ *          the type of instance
+ * @since 0.4.0
+ */
+@FunctionalInterface
+public interface MethodInvoker<T>
+{
+
+	/**
+	 * Invokes the method on defined instance.
+	 *
+	 * @param instance
+	 *          the instance
+	 * @param args
+	 *          the arguments, their count matches parameters of method
+	 * @return the result of method, <code>null</code> for void methods
+	 * @throws Exception
+	 *           the exception thrown by method
+	 */
+	public Object invoke(T instance, Object[] args) throws Exception;
+}
@@ -0,0 +1,54 @@
+package cz.tvrzna.wireable.helpers;
+
+/**
+ * The Class ScanStatistics holds counts of classes, that were found and loaded
+ * during package scanning.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+public class ScanStatistics
+{
+	private final int scannedClasses;
+	private final int loadedClasses;
+
+	/**
+	 * Instantiates a new scan statistics.
+	 *
+	 * @param scannedClasses
+	 *          the scanned classes
+	 * @param loadedClasses
+	 *          the loaded classes
+	 */
+	public ScanStatistics(int scannedClasses, int loadedClasses)
+	{
+		this.scannedClasses = scannedClasses;
+		this.loadedClasses = loadedClasses;
+	}
+
+	/**
+	 * Gets the count of class files found in scanned package.
+	 *
+	 * @return the scanned classes
+	 */
+	public int getScannedClasses()
+	{
+		return scannedClasses;
+	}
+
+	/**
+	 * Gets the count of classes, that were loaded by class loader.
+	 *
+	 * @return the loaded classes
+	 */
+	public int getLoadedClasses()
+	{
+		return loadedClasses;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "ScanStatistics [scannedClasses=" + scannedClasses + ", loadedClasses=" + loadedClasses + "]";
+	}
+}
@@ -0,0 +1,50 @@
+package cz.tvrzna.wireable.helpers;
+
+import cz.tvrzna.wireable.WireableContainer;
+
+/**
+ * The Interface WireableFactory defines factory of <code>Wireable</code> or
+ * <code>Unwireable</code> class, that is generated by
+ * <code>WireableProcessor</code> as <code>ClassName_WireableFactory</code>.
+ * Factory creates the instance, wires its <code>Wired</code> fields and invokes
+ * its annotated methods with plain Java calls, so <code>WireableContainer</code>
+ * does not need to use reflection for these operations.
+ *
+ * @author michalt
+ * @param <T>
+ *          the type of <code>Wireable</code> class
+ * @since 0.4.0
+ */
+public interface WireableFactory<T>
+{
+	/** The suffix of generated factory class name. */
+	public static final String SUFFIX = "_WireableFactory";
+
+	/**
+	 * Creates new instance.
+	 *
+	 * @return the new instance
+	 * @throws Exception
+	 *           the exception thrown by constructor
+	 */
+	public T newInstance() throws Exception;
+
+	/**
+	 * Wires all <code>Wired</code> fields of instance from container.
+	 *
+	 * @param instance
+	 *          the instance
+	 * @param container
+	 *          the container
+	 */
+	public void wire(T instance, WireableContainer container);
+
+	/**
+	 * Gets the invoker of annotated method.
+	 *
+	 * @param signature
+	 *          the signature of method, e.g. <code>onEvent(java.lang.String)</code>
+	 * @return the method invoker, or <code>null</code> if method is unknown
+	 */
+	public MethodInvoker<T> invoker(String signature);
+}
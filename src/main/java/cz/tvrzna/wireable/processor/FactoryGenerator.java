@@ -0,0 +1,278 @@
+package cz.tvrzna.wireable.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.JavaFileObject;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wired;
+import cz.tvrzna.wireable.helpers.WireableFactory;
+
+/**
+ * The generator of {@link WireableFactory} source for one annotated class.
+ * Factory is generated only if the class is top-level, non-abstract and its
+ * no-arg constructor, {@link Wired} fields, {@link OnCreate}, {@link OnStartup}
+ * and {@link OnEvent} methods are accessible from its package. Otherwise
+ * <code>WireableContainer</code> keeps using reflection for the class.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+class FactoryGenerator
+{
+	private final ProcessingEnvironment processingEnv;
+	private final TypeElement type;
+	private final PackageElement pkg;
+	private final List<VariableElement> fields = new ArrayList<>();
+	private final Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+
+	/**
+	 * Instantiates a new factory generator.
+	 *
+	 * @param processingEnv
+	 *          the processing env
+	 * @param type
+	 *          the annotated type
+	 */
+	FactoryGenerator(ProcessingEnvironment processingEnv, TypeElement type)
+	{
+		this.processingEnv = processingEnv;
+		this.type = type;
+		this.pkg = processingEnv.getElementUtils().getPackageOf(type);
+	}
+
+	/**
+	 * Collects members of annotated type and checks, if factory could be
+	 * generated.
+	 *
+	 * @return true, if factory could be generated
+	 */
+	boolean isSupported()
+	{
+		if (type.getNestingKind() != NestingKind.TOP_LEVEL || type.getModifiers().contains(Modifier.ABSTRACT) || !hasConstructor())
+		{
+			return false;
+		}
+
+		TypeElement clazz = type;
+		while (clazz != null && !Object.class.getName().equals(clazz.getQualifiedName().toString()))
+		{
+			for (Element member : clazz.getEnclosedElements())
+			{
+				if (member.getKind() == ElementKind.FIELD && member.getAnnotation(Wired.class) != null)
+				{
+					if (!isAccessible(member) || member.getModifiers().contains(Modifier.FINAL) || member.asType().getKind().isPrimitive())
+					{
+						return false;
+					}
+					fields.add((VariableElement) member);
+				}
+				else if (member.getKind() == ElementKind.METHOD && (member.getAnnotation(OnCreate.class) != null || member.getAnnotation(OnStartup.class) != null
+						|| member.getAnnotationsByType(OnEvent.class).length > 0))
+				{
+					if (!isAccessible(member))
+					{
+						return false;
+					}
+					methods.putIfAbsent(signature((ExecutableElement) member), (ExecutableElement) member);
+				}
+			}
+			clazz = WireableProcessor.superclass(clazz);
+		}
+		return true;
+	}
+
+	/**
+	 * Checks for accessible no-arg constructor, that is not replaced by
+	 * {@link Wired} constructor.
+	 *
+	 * @return true, if successful
+	 */
+	private boolean hasConstructor()
+	{
+		boolean result = false;
+		for (Element member : type.getEnclosedElements())
+		{
+			if (member.getKind() == ElementKind.CONSTRUCTOR)
+			{
+				if (member.getAnnotation(Wired.class) != null)
+				{
+					return false;
+				}
+				if (((ExecutableElement) member).getParameters().isEmpty())
+				{
+					result = !member.getModifiers().contains(Modifier.PRIVATE);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks if member and its declaring class are accessible from package of
+	 * generated factory.
+	 *
+	 * @param member
+	 *          the member
+	 * @return true, if is accessible
+	 */
+	private boolean isAccessible(Element member)
+	{
+		TypeElement declaring = (TypeElement) member.getEnclosingElement();
+		boolean samePackage = pkg.equals(processingEnv.getElementUtils().getPackageOf(declaring));
+		if (member.getModifiers().contains(Modifier.PRIVATE) || !samePackage && !member.getModifiers().contains(Modifier.PUBLIC))
+		{
+			return false;
+		}
+		return samePackage || declaring.getModifiers().contains(Modifier.PUBLIC);
+	}
+
+	/**
+	 * Writes the source of factory.
+	 *
+	 * @throws IOException
+	 *           Signals that an I/O exception has occurred.
+	 */
+	void write() throws IOException
+	{
+		String typeName = type.getQualifiedName().toString();
+		String factoryName = type.getSimpleName() + WireableFactory.SUFFIX;
+		String qualifiedName = pkg.isUnnamed() ? factoryName : pkg.getQualifiedName() + "." + factoryName;
+
+		StringBuilder sb = new StringBuilder();
+		if (!pkg.isUnnamed())
+		{
+			sb.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+		}
+		sb.append("/**\n * Generated by ").append(WireableProcessor.class.getName()).append(".\n */\n");
+		sb.append("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })\n");
+		sb.append("public final class ").append(factoryName).append(" implements ").append(WireableFactory.class.getName()).append('<').append(typeName).append(">\n{\n");
+
+		sb.append("\t@Override\n\tpublic ").append(typeName).append(" newInstance()\n\t{\n");
+		sb.append("\t\treturn new ").append(typeName).append("();\n\t}\n\n");
+
+		sb.append("\t@Override\n\tpublic void wire(").append(typeName).append(" instance, cz.tvrzna.wireable.WireableContainer container)\n\t{\n");
+		for (VariableElement field : fields)
+		{
+			sb.append("\t\t((").append(sourceName(field.getEnclosingElement().asType())).append(") instance).").append(field.getSimpleName());
+			sb.append(" = container.getWiredInstance(").append(sourceName(field.asType())).append(".class);\n");
+		}
+		sb.append("\t}\n\n");
+
+		sb.append("\t@Override\n\tpublic cz.tvrzna.wireable.helpers.MethodInvoker<").append(typeName).append("> invoker(String signature)\n\t{\n");
+		sb.append("\t\tswitch (signature)\n\t\t{\n");
+		for (Map.Entry<String, ExecutableElement> entry : methods.entrySet())
+		{
+			ExecutableElement method = entry.getValue();
+			sb.append("\t\t\tcase \"").append(entry.getKey()).append("\":\n");
+			sb.append("\t\t\t\treturn (instance, args) -> {\n\t\t\t\t\t");
+			if (method.getReturnType().getKind() != TypeKind.VOID)
+			{
+				sb.append("return ");
+			}
+			sb.append("((").append(sourceName(method.getEnclosingElement().asType())).append(") instance).").append(method.getSimpleName()).append('(');
+			for (int i = 0; i < method.getParameters().size(); i++)
+			{
+				TypeMirror paramType = method.getParameters().get(i).asType();
+				sb.append(i > 0 ? ", " : "").append('(').append(paramType.getKind().isPrimitive() ? boxedName(paramType) : sourceName(paramType)).append(") args[").append(i).append(']');
+			}
+			sb.append(");\n");
+			if (method.getReturnType().getKind() == TypeKind.VOID)
+			{
+				sb.append("\t\t\t\t\treturn null;\n");
+			}
+			sb.append("\t\t\t\t};\n");
+		}
+		sb.append("\t\t\tdefault:\n\t\t\t\treturn null;\n\t\t}\n\t}\n}\n");
+
+		JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, type);
+		try (Writer writer = file.openWriter())
+		{
+			writer.write(sb.toString());
+		}
+	}
+
+	/**
+	 * Gets the signature of method in the same form as
+	 * <code>Reflections.getSignature(Method)</code>.
+	 *
+	 * @param method
+	 *          the method
+	 * @return the signature
+	 */
+	private String signature(ExecutableElement method)
+	{
+		StringBuilder sb = new StringBuilder(method.getSimpleName()).append('(');
+		for (int i = 0; i < method.getParameters().size(); i++)
+		{
+			sb.append(i > 0 ? "," : "").append(runtimeName(method.getParameters().get(i).asType()));
+		}
+		return sb.append(')').toString();
+	}
+
+	/**
+	 * Gets the runtime name of type, as is returned by
+	 * <code>Class.getTypeName()</code>.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the runtime name
+	 */
+	private String runtimeName(TypeMirror type)
+	{
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		if (erasure.getKind() == TypeKind.ARRAY)
+		{
+			return runtimeName(((ArrayType) erasure).getComponentType()) + "[]";
+		}
+		if (erasure.getKind() == TypeKind.DECLARED)
+		{
+			return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) erasure).asElement()).toString();
+		}
+		return erasure.toString();
+	}
+
+	/**
+	 * Gets the name of erased type usable in source code.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the source name
+	 */
+	private String sourceName(TypeMirror type)
+	{
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	/**
+	 * Gets the name of boxed primitive type.
+	 *
+	 * @param type
+	 *          the primitive type
+	 * @return the boxed name
+	 */
+	private String boxedName(TypeMirror type)
+	{
+		return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+	}
+}
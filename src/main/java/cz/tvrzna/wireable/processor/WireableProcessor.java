@@ -0,0 +1,294 @@
+package cz.tvrzna.wireable.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Unwireable;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+
+/**
+ * The annotation processor, that records all {@link Wireable} and
+ * {@link Unwireable} classes found during compilation into
+ * <code>META-INF/wireable/index</code> resource. Every class is written on its
+ * own line with its kind and priority level, followed by indented lines with
+ * its {@link Wired} fields, {@link OnCreate}, {@link OnStartup} and
+ * {@link OnEvent} methods.<br>
+ * If the index is present on classpath, <code>WireableContainer</code> reads
+ * the classes from it instead of scanning the package.<br>
+ * For every class, that does not need reflection to access its members,
+ * {@link cz.tvrzna.wireable.helpers.WireableFactory} is generated too.
+ *
+ * @author michalt
+ * @since 0.4.0
+ */
+@SupportedAnnotationTypes({ "cz.tvrzna.wireable.annotations.Wireable", "cz.tvrzna.wireable.annotations.Unwireable" })
+public class WireableProcessor extends AbstractProcessor
+{
+	/** The location of index resource. */
+	public static final String INDEX = "META-INF/wireable/index";
+
+	private final Map<String, String> entries = new TreeMap<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		if (roundEnv.processingOver())
+		{
+			writeIndex();
+			return false;
+		}
+
+		for (Element element : roundEnv.getElementsAnnotatedWith(Wireable.class))
+		{
+			addEntry(element);
+		}
+		for (Element element : roundEnv.getElementsAnnotatedWith(Unwireable.class))
+		{
+			addEntry(element);
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the index entry of annotated class.
+	 *
+	 * @param element
+	 *          the annotated element
+	 */
+	private void addEntry(Element element)
+	{
+		if (element.getKind() != ElementKind.CLASS)
+		{
+			return;
+		}
+		TypeElement type = (TypeElement) element;
+		String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+
+		StringBuilder sb = new StringBuilder(className);
+		Wireable wireable = type.getAnnotation(Wireable.class);
+		if (wireable != null)
+		{
+			sb.append(" wireable ").append(wireable.priority().name());
+		}
+		else
+		{
+			sb.append(" unwireable ").append(type.getAnnotation(Unwireable.class).priority().name());
+		}
+		sb.append('\n');
+
+		TypeElement clazz = type;
+		while (clazz != null && !Object.class.getName().equals(clazz.getQualifiedName().toString()))
+		{
+			for (Element member : clazz.getEnclosedElements())
+			{
+				if (member.getKind() == ElementKind.FIELD && member.getAnnotation(Wired.class) != null)
+				{
+					sb.append("\tfield ").append(member.getSimpleName()).append(' ').append(typeName(((VariableElement) member).asType())).append('\n');
+				}
+				else if (member.getKind() == ElementKind.METHOD)
+				{
+					appendMethod(sb, (ExecutableElement) member);
+				}
+			}
+			clazz = superclass(clazz);
+		}
+		entries.put(className, sb.toString());
+
+		FactoryGenerator generator = new FactoryGenerator(processingEnv, type);
+		if (generator.isSupported())
+		{
+			try
+			{
+				generator.write();
+			}
+			catch (IOException e)
+			{
+				processingEnv.getMessager().printMessage(Kind.ERROR, "Could not write factory of " + className + ": " + e.getMessage(), type);
+			}
+		}
+	}
+
+	/**
+	 * Appends lines of annotated method.
+	 *
+	 * @param sb
+	 *          the string builder
+	 * @param method
+	 *          the method
+	 */
+	private void appendMethod(StringBuilder sb, ExecutableElement method)
+	{
+		OnCreate onCreate = method.getAnnotation(OnCreate.class);
+		if (onCreate != null)
+		{
+			sb.append("\tonCreate ").append(method.getSimpleName()).append(' ').append(onCreate.priority().name()).append('\n');
+		}
+		OnStartup onStartup = method.getAnnotation(OnStartup.class);
+		if (onStartup != null)
+		{
+			sb.append("\tonStartup ").append(method.getSimpleName()).append(' ').append(onStartup.priority().name()).append('\n');
+		}
+		for (OnEvent onEvent : method.getAnnotationsByType(OnEvent.class))
+		{
+			sb.append("\tonEvent ").append(method.getSimpleName()).append(' ').append(onEvent.value()).append('\n');
+		}
+	}
+
+	/**
+	 * Gets the superclass of defined type.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the superclass or <code>null</code>
+	 */
+	static TypeElement superclass(TypeElement type)
+	{
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() == TypeKind.DECLARED)
+		{
+			return (TypeElement) ((DeclaredType) superclass).asElement();
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the runtime name of type.
+	 *
+	 * @param type
+	 *          the type
+	 * @return the type name
+	 */
+	private String typeName(TypeMirror type)
+	{
+		TypeMirror erasure = processingEnv.getTypeUtils().erasure(type);
+		if (erasure.getKind() == TypeKind.DECLARED)
+		{
+			return processingEnv.getElementUtils().getBinaryName((TypeElement) ((DeclaredType) erasure).asElement()).toString();
+		}
+		return erasure.toString();
+	}
+
+	/**
+	 * Writes all collected entries into index resource. Entries of index written
+	 * by previous compilation are kept, if their classes were not compiled again
+	 * and still exist with {@link Wireable} or {@link Unwireable}, so
+	 * incremental compilation does not lose classes, that were not changed.
+	 */
+	private void writeIndex()
+	{
+		if (entries.isEmpty())
+		{
+			return;
+		}
+		readIndex();
+		try
+		{
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+			try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8))
+			{
+				for (String entry : entries.values())
+				{
+					writer.write(entry);
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			processingEnv.getMessager().printMessage(Kind.ERROR, "Could not write " + INDEX + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads entries of existing index resource, that are not collected in this
+	 * compilation. If there is no index of previous compilation, nothing is
+	 * read.
+	 */
+	private void readIndex()
+	{
+		Map<String, StringBuilder> previous = new TreeMap<>();
+		try
+		{
+			FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX);
+			try (BufferedReader reader = new BufferedReader(file.openReader(true)))
+			{
+				StringBuilder sb = null;
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					if (line.isEmpty())
+					{
+						continue;
+					}
+					if (!Character.isWhitespace(line.charAt(0)))
+					{
+						int end = line.indexOf(' ');
+						sb = new StringBuilder();
+						previous.put(end < 0 ? line : line.substring(0, end), sb);
+					}
+					if (sb != null)
+					{
+						sb.append(line).append('\n');
+					}
+				}
+			}
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			return;
+		}
+
+		for (Map.Entry<String, StringBuilder> entry : previous.entrySet())
+		{
+			if (!entries.containsKey(entry.getKey()) && isAnnotated(entry.getKey()))
+			{
+				entries.put(entry.getKey(), entry.getValue().toString());
+			}
+		}
+	}
+
+	/**
+	 * Checks if class of defined binary name exists and is annotated by
+	 * {@link Wireable} or {@link Unwireable}.
+	 *
+	 * @param className
+	 *          the binary class name
+	 * @return true, if is annotated
+	 */
+	private boolean isAnnotated(String className)
+	{
+		TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+		return type != null && (type.getAnnotation(Wireable.class) != null || type.getAnnotation(Unwireable.class) != null);
+	}
+}
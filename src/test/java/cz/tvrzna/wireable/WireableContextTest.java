@@ -2,22 +2,91 @@ package cz.tvrzna.wireable;
 
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import cz.tvrzna.wireable.annotations.Unwireable;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.enums.OverflowPolicy;
+import cz.tvrzna.wireable.enums.RejectionPolicy;
+import cz.tvrzna.wireable.enums.WaitStrategy;
 import cz.tvrzna.wireable.exceptions.WireableException;
+import cz.tvrzna.wireable.helpers.EventQueueStatistics;
+import cz.tvrzna.wireable.helpers.EventResult;
+import cz.tvrzna.wireable.helpers.ScanStatistics;
+import cz.tvrzna.wireable.helpers.WireableFactory;
+import cz.tvrzna.wireable.test.TestNonwireableClass;
+import cz.tvrzna.wireable.test.TestUnwireableClass;
 import cz.tvrzna.wireable.test.TestWireObjectsClass;
 import cz.tvrzna.wireable.test.TestWireableClass;
 import cz.tvrzna.wireable.test.TestWireableClass2;
+import cz.tvrzna.wireable.test10.TestConstructorCycleA;
+import cz.tvrzna.wireable.test11.TestStartupA;
+import cz.tvrzna.wireable.test11.TestStartupB;
+import cz.tvrzna.wireable.test12.TestStartupFailing;
+import cz.tvrzna.wireable.test12.TestStartupTimeout;
+import cz.tvrzna.wireable.test13.TestEventExecutor;
+import cz.tvrzna.wireable.test14.TestBaseEvent;
+import cz.tvrzna.wireable.test14.TestOrderEvent;
+import cz.tvrzna.wireable.test14.TestTypedListener;
+import cz.tvrzna.wireable.test15.TestTopicListener;
+import cz.tvrzna.wireable.test16.TestBatchListener;
+import cz.tvrzna.wireable.test16.TestPrice;
+import cz.tvrzna.wireable.test17.TestMailboxOrder;
+import cz.tvrzna.wireable.test17.TestMailboxSlow;
+import cz.tvrzna.wireable.test18.TestRingListener;
+import cz.tvrzna.wireable.test19.TestQueueListener;
+import cz.tvrzna.wireable.test20.TestGatherListener;
+import cz.tvrzna.wireable.test20.TestLookupOrders;
+import cz.tvrzna.wireable.test20.TestLookupUsers;
+import cz.tvrzna.wireable.test21.TestTypedBatch;
 import cz.tvrzna.wireable.test2.TestWireableClassWithException;
+import cz.tvrzna.wireable.test3.TestLifecycleOrder;
 import cz.tvrzna.wireable.test3.TestOnCreatePriority;
 import cz.tvrzna.wireable.test4.TestOnEvent;
 import cz.tvrzna.wireable.test5.ITestInterface;
 import cz.tvrzna.wireable.test5.ITestInterface2;
 import cz.tvrzna.wireable.test5.TestInterfaceA;
+import cz.tvrzna.wireable.test5.TestInterfaceB;
+import cz.tvrzna.wireable.test6.TestFactoryClass;
+import cz.tvrzna.wireable.test6.TestFactoryClass2;
+import cz.tvrzna.wireable.test7.TestDependencyA;
+import cz.tvrzna.wireable.test7.TestDependencyC;
+import cz.tvrzna.wireable.test7.TestDependencyD;
+import cz.tvrzna.wireable.test8.TestLazyClass;
+import cz.tvrzna.wireable.test8.TestLazyUser;
+import cz.tvrzna.wireable.test9.TestConstructorA;
+import cz.tvrzna.wireable.test9.TestConstructorB;
 
 public class WireableContextTest
 {
@@ -196,4 +265,807 @@ public class WireableContextTest
 
 		assertNull(container2.getInstance(ITestInterface.class));
 	}
+
+	@Test
+	public void testIndex() throws IOException
+	{
+		List<String> classNames = WireableIndex.findClassNames(TestWireableClass.class.getPackage().getName());
+
+		Assertions.assertTrue(classNames.contains(TestWireableClass.class.getName()));
+		Assertions.assertTrue(classNames.contains(TestUnwireableClass.class.getName()));
+		Assertions.assertFalse(classNames.contains(TestNonwireableClass.class.getName()));
+		Assertions.assertFalse(classNames.contains(TestWireableClassWithException.class.getName()));
+		Assertions.assertTrue(WireableIndex.findClassNames(TestWireableClass.class.getPackage().getName().concat(".empty")).isEmpty());
+
+		Map<String, List<String>> roots = WireableIndex.findClassNamesByRoot(TestWireableClass.class.getPackage().getName());
+		ClassScanner scanner = new ClassScanner(Wireable.class, Unwireable.class);
+		scanner.setSkippedRoots(roots.keySet());
+		Assertions.assertTrue(scanner.findClassNames(TestWireableClass.class.getPackage().getName()).isEmpty());
+		Assertions.assertEquals(0, scanner.getStatistics().getScannedClasses());
+	}
+
+	@Test
+	public void testScanAnnotatedClasses() throws ClassNotFoundException, IOException
+	{
+		ClassScanner scanner = new ClassScanner(Wireable.class, Unwireable.class);
+		List<Class<?>> classes = Arrays.asList(scanner.scan(TestWireableClass.class.getPackage().getName()));
+
+		Assertions.assertTrue(classes.contains(TestWireableClass.class));
+		Assertions.assertTrue(classes.contains(TestUnwireableClass.class));
+		Assertions.assertFalse(classes.contains(TestNonwireableClass.class));
+
+		ClassScanner allScanner = new ClassScanner();
+		List<Class<?>> allClasses = Arrays.asList(allScanner.scan(TestWireableClass.class.getPackage().getName()));
+		List<Class<?>> annotatedClasses = allClasses.stream().filter(c -> c.isAnnotationPresent(Wireable.class) || c.isAnnotationPresent(Unwireable.class))
+				.collect(Collectors.toList());
+		Assertions.assertEquals(annotatedClasses, classes);
+
+		ScanStatistics statistics = scanner.getStatistics();
+		Assertions.assertEquals(classes.size(), statistics.getLoadedClasses());
+		Assertions.assertEquals(allClasses.size(), statistics.getScannedClasses());
+		Assertions.assertTrue(statistics.getLoadedClasses() < statistics.getScannedClasses());
+	}
+
+	@Test
+	public void testScanParallel() throws ClassNotFoundException, IOException
+	{
+		String packageName = WireableContextTest.class.getPackage().getName();
+		ClassScanner scanner = new ClassScanner(Wireable.class, Unwireable.class);
+		ClassScanner parallelScanner = new ClassScanner(4, Wireable.class, Unwireable.class);
+
+		Assertions.assertArrayEquals(scanner.scan(packageName), parallelScanner.scan(packageName));
+		Assertions.assertEquals(scanner.getStatistics().getScannedClasses(), parallelScanner.getStatistics().getScannedClasses());
+	}
+
+	@Test
+	public void testScanCache(@TempDir File tempDir) throws ClassNotFoundException, IOException
+	{
+		String packageName = WireableContextTest.class.getPackage().getName();
+		File cacheFile = new File(tempDir, "scan.cache");
+
+		ClassScanner scanner = new ClassScanner(Wireable.class, Unwireable.class);
+		scanner.setCache(new ScanCache(cacheFile));
+		Class<?>[] classes = scanner.scan(packageName);
+		Assertions.assertTrue(cacheFile.isFile());
+
+		ClassScanner cachedScanner = new ClassScanner(Wireable.class, Unwireable.class);
+		cachedScanner.setCache(new ScanCache(cacheFile));
+		Assertions.assertArrayEquals(classes, cachedScanner.scan(packageName));
+		Assertions.assertEquals(0, cachedScanner.getStatistics().getScannedClasses());
+		Assertions.assertEquals(classes.length, cachedScanner.getStatistics().getLoadedClasses());
+
+		File jar = new File(tempDir, "lib.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar)))
+		{
+			out.putNextEntry(new JarEntry("a/B.class"));
+			out.write(1);
+		}
+		jar.setLastModified(1000000l);
+		new ScanCache(cacheFile).put("jar", jar, Collections.emptyMap(), Arrays.asList("a.B"));
+		byte[] garbage = new byte[(int) jar.length()];
+		Files.write(jar.toPath(), garbage);
+		jar.setLastModified(1000000l);
+		Assertions.assertEquals(Arrays.asList("a.B"), new ScanCache(cacheFile).get("jar", jar));
+		jar.setLastModified(2000000l);
+		Assertions.assertNull(new ScanCache(cacheFile).get("jar", jar));
+
+		File directory = new File(tempDir, "classes");
+		File packageDirectory = new File(directory, "a");
+		packageDirectory.mkdirs();
+		File annotated = new File(packageDirectory, "B.class");
+		File other = new File(packageDirectory, "C.class");
+		Files.write(annotated.toPath(), new byte[]
+		{ 1 });
+		Files.write(other.toPath(), new byte[]
+		{ 1 });
+		directory.setLastModified(1000000l);
+		packageDirectory.setLastModified(1000000l);
+		annotated.setLastModified(1000000l);
+		Map<String, Long> stamps = new HashMap<>();
+		for (File file : new File[]
+		{ directory, packageDirectory, annotated })
+		{
+			stamps.put(file.getPath(), file.lastModified());
+		}
+		new ScanCache(cacheFile).put("directory", directory, stamps, Arrays.asList("a.B"));
+		Files.write(other.toPath(), new byte[]
+		{ 1, 2 });
+		Assertions.assertEquals(Arrays.asList("a.B"), new ScanCache(cacheFile).get("directory", directory));
+		Files.write(new File(packageDirectory, "D.class").toPath(), new byte[]
+		{ 1 });
+		Assertions.assertNull(new ScanCache(cacheFile).get("directory", directory));
+		new ScanCache(cacheFile).put("directory", directory, stamps, Arrays.asList("a.B"));
+		annotated.setLastModified(2000000l);
+		Assertions.assertNull(new ScanCache(cacheFile).get("directory", directory));
+	}
+
+	@Test
+	public void testInitMultiplePackages() throws WireableException
+	{
+		WireableContainer container = WireableContext.create();
+		container.init(TestWireableClass.class.getPackage().getName(), TestInterfaceA.class.getPackage().getName());
+
+		Assertions.assertNotNull(container.getInstance(TestWireableClass.class));
+		Assertions.assertNotNull(container.getInstance(ITestInterface.class));
+	}
+
+	@Test
+	public void testScanMultiplePackages() throws IOException
+	{
+		ClassScanner scanner = new ClassScanner(Wireable.class, Unwireable.class);
+		List<String> classNames = scanner.findClassNames(TestWireableClass.class.getPackage().getName(), TestInterfaceA.class.getPackage().getName(),
+				TestWireableClass.class.getPackage().getName().concat(".empty"));
+
+		ClassScanner first = new ClassScanner(Wireable.class, Unwireable.class);
+		ClassScanner second = new ClassScanner(Wireable.class, Unwireable.class);
+		List<String> expected = new ArrayList<>(first.findClassNames(TestWireableClass.class.getPackage().getName()));
+		expected.addAll(second.findClassNames(TestInterfaceA.class.getPackage().getName()));
+		Collections.sort(expected);
+
+		Assertions.assertEquals(expected, classNames);
+		Assertions.assertEquals(classNames.size(), classNames.stream().distinct().count());
+		Assertions.assertEquals(first.getStatistics().getScannedClasses() + second.getStatistics().getScannedClasses(), scanner.getStatistics().getScannedClasses());
+	}
+
+	@Test
+	public void testScanNestedJars(@TempDir File tempDir) throws IOException
+	{
+		File classes = new File(WireableContextTest.class.getProtectionDomain().getCodeSource().getLocation().getPath());
+		String test = TestWireableClass.class.getPackage().getName().replace('.', '/');
+		String test5 = TestInterfaceA.class.getPackage().getName().replace('.', '/');
+
+		ByteArrayOutputStream innerJar = new ByteArrayOutputStream();
+		try (JarOutputStream out = new JarOutputStream(innerJar))
+		{
+			addToJar(out, new File(classes, test), test);
+		}
+
+		File fatJar = new File(tempDir, "fat.jar");
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(fatJar)))
+		{
+			addToJar(out, new File(classes, test5), "BOOT-INF/classes/" + test5);
+			out.putNextEntry(new JarEntry("BOOT-INF/lib/inner.jar"));
+			out.write(innerJar.toByteArray());
+		}
+
+		ClassLoader classLoader = new ClassLoader(null)
+		{
+			@Override
+			protected Enumeration<URL> findResources(String name) throws IOException
+			{
+				Vector<URL> urls = new Vector<>();
+				urls.add(new URL("jar:file:" + fatJar.getAbsolutePath() + "!/BOOT-INF/classes!/" + name));
+				urls.add(new URL("jar:file:" + fatJar.getAbsolutePath() + "!/BOOT-INF/lib/inner.jar!/" + name));
+				return urls.elements();
+			}
+		};
+
+		ClassScanner directoryScanner = new ClassScanner(Wireable.class, Unwireable.class);
+		List<String> expected = directoryScanner.findClassNames(TestWireableClass.class.getPackage().getName(), TestInterfaceA.class.getPackage().getName());
+
+		ClassLoader original = Thread.currentThread().getContextClassLoader();
+		Thread.currentThread().setContextClassLoader(classLoader);
+		try
+		{
+			ClassScanner scanner = new ClassScanner(Wireable.class, Unwireable.class);
+			List<String> classNames = scanner.findClassNames(TestWireableClass.class.getPackage().getName(), TestInterfaceA.class.getPackage().getName());
+
+			Assertions.assertTrue(classNames.contains(TestWireableClass.class.getName()));
+			Assertions.assertTrue(classNames.contains(TestInterfaceA.class.getName()));
+			Assertions.assertEquals(expected, classNames);
+			Assertions.assertEquals(directoryScanner.getStatistics().getScannedClasses(), scanner.getStatistics().getScannedClasses());
+		}
+		finally
+		{
+			Thread.currentThread().setContextClassLoader(original);
+		}
+
+		Assertions.assertArrayEquals(new String[]
+		{ "/app.jar", "BOOT-INF/classes" }, ClassScanner.splitArchivePath("nested:/app.jar/!BOOT-INF/classes/!/cz/tvrzna"));
+		Assertions.assertArrayEquals(new String[]
+		{ "/app.jar", "" }, ClassScanner.splitArchivePath("file:/app.jar!/cz/tvrzna"));
+	}
+
+	private void addToJar(JarOutputStream out, File directory, String path) throws IOException
+	{
+		for (File file : directory.listFiles())
+		{
+			if (file.isDirectory())
+			{
+				addToJar(out, file, path + "/" + file.getName());
+			}
+			else
+			{
+				out.putNextEntry(new JarEntry(path + "/" + file.getName()));
+				Files.copy(file.toPath(), out);
+			}
+		}
+	}
+
+	@Test
+	public void testFactory() throws Exception
+	{
+		WireableFactory<?> factory = (WireableFactory<?>) Class.forName(TestFactoryClass.class.getName().concat(WireableFactory.SUFFIX)).getDeclaredConstructor().newInstance();
+		Assertions.assertNotNull(factory.invoker("onEvent(java.lang.String,int)"));
+		Assertions.assertNull(factory.invoker("unknown()"));
+		Assertions.assertThrows(ClassNotFoundException.class, () -> Class.forName(TestWireableClass.class.getName().concat(WireableFactory.SUFFIX)));
+
+		WireableContainer container = WireableContext.createAndInit(TestFactoryClass.class.getPackage().getName());
+		TestFactoryClass instance = container.getInstance(TestFactoryClass.class);
+		Assertions.assertEquals(1, instance.getCreateCount());
+		Assertions.assertTrue(container.getInstance(TestFactoryClass2.class).isStarted());
+
+		container.fireEvent("factoryEvent", "value", 1);
+		Assertions.assertEquals("value1", instance.getLastEvent());
+	}
+
+	@Test
+	public void testBeanAccessor() throws Exception
+	{
+		BeanAccessor accessor = BeanAccessor.of(TestOnEvent.class);
+		Assertions.assertSame(accessor, BeanAccessor.of(TestOnEvent.class));
+
+		TestOnEvent instance = (TestOnEvent) accessor.newInstance();
+		Method method = TestOnEvent.class.getDeclaredMethod("event2_method1", String.class, Boolean.class);
+		Assertions.assertSame(accessor.getInvoker(method), accessor.getInvoker(method));
+
+		accessor.getInvoker(method).invoke(instance, new Object[]
+		{ "value", true });
+		Assertions.assertEquals(1, instance.getEvent2Count());
+		Assertions.assertThrows(ClassCastException.class, () -> accessor.getInvoker(method).invoke(instance, new Object[]
+		{ "value", "true" }));
+	}
+
+	@Test
+	public void testDependencyOrder() throws WireableException
+	{
+		TestDependencyA.CREATED.clear();
+		WireableContainer container = WireableContext.create();
+		container.init(TestDependencyA.class.getPackage().getName());
+
+		Assertions.assertEquals(Arrays.asList("B", "C", "D", "A"), TestDependencyA.CREATED);
+		Assertions.assertEquals(Arrays.asList(Arrays.asList(TestDependencyC.class, TestDependencyD.class)), container.getDependencyCycles());
+	}
+
+	@Test
+	public void testDependencyExecutor() throws WireableException
+	{
+		TestDependencyA.CREATED.clear();
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			WireableContainer container = WireableContext.create();
+			container.setCreateExecutor(executor);
+			container.init(TestDependencyA.class.getPackage().getName());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		Assertions.assertEquals(4, TestDependencyA.CREATED.size());
+		Assertions.assertEquals("A", TestDependencyA.CREATED.get(3));
+		Assertions.assertTrue(TestDependencyA.CREATED.indexOf("C") < TestDependencyA.CREATED.indexOf("D"));
+	}
+
+	@Test
+	public void testLazy() throws Exception
+	{
+		TestLazyClass.INSTANCES.set(0);
+		WireableContainer container = WireableContext.create();
+		container.init(TestLazyClass.class.getPackage().getName());
+
+		Assertions.assertEquals(0, TestLazyClass.INSTANCES.get());
+		Assertions.assertEquals(1, container.getLazyInstanceCount());
+		Assertions.assertEquals(0, container.getMaterializedInstanceCount());
+
+		TestLazyUser user = container.getInstance(TestLazyUser.class);
+		Assertions.assertTrue(user.getLazy().isCreated());
+		Assertions.assertEquals(1, TestLazyClass.INSTANCES.get());
+		Assertions.assertEquals(1, container.getMaterializedInstanceCount());
+		Assertions.assertTrue(container.getInstance(TestLazyClass.class).isCreated());
+	}
+
+	@Test
+	public void testLazyConcurrent() throws Exception
+	{
+		TestLazyClass.INSTANCES.set(0);
+		WireableContainer container = WireableContext.create();
+		container.setLazyByDefault(true);
+		container.init(TestLazyClass.class.getPackage().getName());
+		Assertions.assertEquals(2, container.getLazyInstanceCount());
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<TestLazyClass>> futures = new ArrayList<>();
+			for (int i = 0; i < 8; i++)
+			{
+				futures.add(executor.submit(() -> container.getInstance(TestLazyClass.class)));
+			}
+			for (Future<TestLazyClass> future : futures)
+			{
+				Assertions.assertTrue(future.get().isCreated());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+		Assertions.assertEquals(1, TestLazyClass.INSTANCES.get());
+		Assertions.assertEquals(2, container.getMaterializedInstanceCount());
+	}
+
+	@Test
+	public void testEventDispatcher() throws WireableException
+	{
+		TestLazyClass.INSTANCES.set(0);
+		WireableContainer container = WireableContext.create();
+		container.init(TestLazyClass.class.getPackage().getName());
+		Assertions.assertEquals(0, container.getMaterializedInstanceCount());
+
+		container.fireEvent("LAZYEVENT", "first", "ignored");
+		container.fireEvent("lazyEvent", "second");
+		container.fireEvent("lazyEvent");
+		container.fireEvent("unknownEvent", "value");
+
+		Assertions.assertEquals(1, TestLazyClass.INSTANCES.get());
+		Assertions.assertEquals(Arrays.asList("first", "second", null), container.getInstance(TestLazyClass.class).getEvents());
+	}
+
+	@Test
+	public void testEventHandle() throws WireableException, InterruptedException
+	{
+		resetWireableContext();
+		EventHandle handle = WireableContext.event("LazyEvent");
+		WireableContext.init(TestLazyClass.class.getPackage().getName());
+
+		handle.fire("first");
+		WireableContext.event("unknownEvent").fire("value");
+		CountDownLatch latch = new CountDownLatch(1);
+		handle.fireAsync(e -> latch.countDown(), 1);
+		Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(Arrays.asList("first"), WireableContext.getInstance(TestLazyClass.class).getEvents());
+
+		resetWireableContext();
+		WireableContext.init(TestLazyClass.class.getPackage().getName());
+		handle.fire("second");
+		Assertions.assertEquals(Arrays.asList("second"), WireableContext.getInstance(TestLazyClass.class).getEvents());
+	}
+
+	@Test
+	public void testPublish() throws WireableException
+	{
+		WireableContainer container = WireableContext.createAndInit(TestTypedListener.class.getPackage().getName());
+		TestTypedListener listener = container.getInstance(TestTypedListener.class);
+
+		container.publish(new TestOrderEvent());
+		List<String> events = new ArrayList<>(listener.getEvents());
+		Collections.sort(events);
+		Assertions.assertEquals(Arrays.asList("base", "interface", "order"), events);
+
+		listener.getEvents().clear();
+		container.publish(new TestBaseEvent());
+		container.publish(5);
+		container.publish("unknown");
+		container.publish(null);
+		Assertions.assertEquals(Arrays.asList("base", "number 5"), listener.getEvents());
+	}
+
+	@Test
+	public void testTopicWildcards() throws WireableException
+	{
+		WireableContainer container = WireableContext.create();
+		container.setEventQueue("order.shipped", 16, OverflowPolicy.BLOCK, 0);
+		container.init(TestTopicListener.class.getPackage().getName());
+		TestTopicListener listener = container.getInstance(TestTopicListener.class);
+
+		container.fireEvent("order.created", "1");
+		container.fireEvent("ORDER.paid", "2");
+		container.fireEvent("order.paid.late", "3");
+		container.fireEvent("user", "4");
+		container.fireEvent("user.session.expired", "5");
+		container.event("user.login").fire("6");
+		container.fireEvent("order.paid", "7");
+
+		List<String> events = new ArrayList<>(listener.getEvents());
+		Collections.sort(events);
+		Assertions.assertEquals(Arrays.asList("created 1", "order 1", "order 2", "order 7", "session 5", "user 4", "user 5", "user 6"), events);
+
+		EventRouter router = container.getEventContext();
+		EventDispatcher shipped = router.getDispatcher("order.shipped");
+		EventDispatcher hot = router.getDispatcher("user.hot");
+		Assertions.assertNotNull(shipped.getDelivery());
+		Assertions.assertNull(router.getDispatcher("unknown.topic"));
+		for (int i = 0; i < 4096; i++)
+		{
+			router.getDispatcher("user.cold." + i);
+			Assertions.assertSame(hot, router.getDispatcher("user.hot"));
+		}
+		Assertions.assertSame(shipped, router.getDispatcher("order.shipped"));
+	}
+
+	@Test
+	public void testEventBatching() throws WireableException, InterruptedException
+	{
+		WireableContainer container = WireableContext.createAndInit(TestBatchListener.class.getPackage().getName());
+		TestBatchListener listener = container.getInstance(TestBatchListener.class);
+
+		for (int i = 1; i <= 7; i++)
+		{
+			container.fireEvent("tick", i);
+		}
+		Assertions.assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6)), listener.getTicks());
+
+		container.fireEvent("invalidate", "a");
+		container.fireEvent("invalidate", "b");
+		container.fireEvent("invalidate", "a");
+		Assertions.assertTrue(listener.getInvalidated().await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(Arrays.asList(Arrays.asList("a", "b")), listener.getInvalidations());
+
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(Arrays.asList(7), listener.getTicks().get(2));
+	}
+
+	@Test
+	public void testTypedEventBatching()
+	{
+		WireableContainer container = WireableContext.create();
+		WireableException e = Assertions.assertThrows(WireableException.class, () -> container.init(TestTypedBatch.class.getPackage().getName()));
+		Assertions.assertTrue(e.getCause().getMessage().endsWith("does not support batch or coalesce"));
+	}
+
+	@Test
+	public void testEventBatchingHandOff() throws WireableException, InterruptedException
+	{
+		WireableContainer container = WireableContext.create();
+		container.setEventThreads(1);
+		container.setEventQueueCapacity(1);
+		container.init(TestBatchListener.class.getPackage().getName());
+		TestBatchListener listener = container.getInstance(TestBatchListener.class);
+
+		container.fireEventAsync("block");
+		Assertions.assertTrue(listener.getStarted().await(5, TimeUnit.SECONDS));
+		container.fireEventAsync("block");
+		container.fireEvent("price", new TestPrice("A", 1));
+		container.fireEvent("price", new TestPrice("B", 2));
+		container.fireEvent("price", new TestPrice("A", 3));
+
+		CountDownLatch timer = new CountDownLatch(1);
+		WireableTimer.schedule(timer::countDown, 100);
+		Assertions.assertTrue(timer.await(5, TimeUnit.SECONDS));
+		Assertions.assertTrue(listener.getPrices().isEmpty());
+
+		listener.getReleased().countDown();
+		Assertions.assertTrue(listener.getPriced().await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(Arrays.asList("[A3, B2]"), listener.getPrices());
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testEventMailboxes() throws WireableException, InterruptedException
+	{
+		WireableContainer container = WireableContext.create();
+		container.setEventMailboxes(true);
+		container.setEventThreads(2);
+		container.init(TestMailboxOrder.class.getPackage().getName());
+		TestMailboxOrder order = container.getInstance(TestMailboxOrder.class);
+		TestMailboxSlow slow = container.getInstance(TestMailboxSlow.class);
+
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			container.fireEventAsync("mail", i);
+			expected.add(i);
+		}
+		Assertions.assertTrue(order.getReceived().await(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(expected, order.getValues());
+
+		Assertions.assertTrue(slow.getValues().isEmpty());
+		WireableTimer.schedule(slow.getReleased()::countDown, 100);
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(expected, slow.getValues());
+	}
+
+	@Test
+	public void testEventRing() throws WireableException, InterruptedException
+	{
+		WireableContainer container = WireableContext.create();
+		Assertions.assertThrows(IllegalArgumentException.class, () -> container.setEventRing("ring", 10, WaitStrategy.YIELD));
+		container.setEventRing("Ring", 16, WaitStrategy.PARK);
+		container.init(TestRingListener.class.getPackage().getName());
+		TestRingListener listener = container.getInstance(TestRingListener.class);
+
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+		{
+			container.fireEventAsync("ring", i);
+			expected.add(i);
+		}
+		Assertions.assertTrue(listener.getReceived().await(5, TimeUnit.SECONDS));
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(expected, listener.getValues());
+		Assertions.assertThrows(RejectedExecutionException.class, () -> container.fireEventAsync("ring", 0));
+	}
+
+	@Test
+	public void testEventQueue() throws WireableException, InterruptedException
+	{
+		WireableContainer container = WireableContext.create();
+		container.setEventThreads(1);
+		container.setEventQueue("queued", 2, OverflowPolicy.DROP_OLDEST, 0);
+		container.setEventQueue("queuedBlock", 1, OverflowPolicy.BLOCK, 10);
+		container.init(TestQueueListener.class.getPackage().getName());
+		TestQueueListener listener = container.getInstance(TestQueueListener.class);
+
+		container.fireEventAsync("queued", 1);
+		Assertions.assertTrue(listener.getStarted().await(5, TimeUnit.SECONDS));
+		for (int i = 2; i <= 4; i++)
+		{
+			container.fireEventAsync("queued", i);
+		}
+		container.fireEventAsync("queuedBlock", 5);
+		container.fireEventAsync("queuedBlock", 6);
+
+		EventQueueStatistics statistics = container.getEventQueueStatistics("queued");
+		Assertions.assertEquals(4, statistics.getEnqueued());
+		Assertions.assertEquals(1, statistics.getDropped());
+		Assertions.assertEquals(2, statistics.getDepth());
+		statistics = container.getEventQueueStatistics("queuedBlock");
+		Assertions.assertEquals(1, statistics.getEnqueued());
+		Assertions.assertEquals(1, statistics.getBlocked());
+		Assertions.assertEquals(1, statistics.getDropped());
+		Assertions.assertNull(container.getEventQueueStatistics("unknown"));
+
+		Assertions.assertFalse(container.shutdown(50, TimeUnit.MILLISECONDS));
+		Assertions.assertThrows(RejectedExecutionException.class, () -> container.fireEventAsync("queued", 7));
+		WireableTimer.schedule(listener.getReleased()::countDown, 100);
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(3, container.getEventQueueStatistics("queued").getDispatched());
+		Assertions.assertEquals(0, container.getEventQueueStatistics("queued").getDepth());
+		Assertions.assertEquals(Arrays.asList(1, 3, 4, 5), listener.getValues());
+	}
+
+	@Test
+	public void testGatherEvent() throws Exception
+	{
+		WireableContainer container = WireableContext.create();
+		container.setEventThreads(4);
+		container.init(TestGatherListener.class.getPackage().getName());
+		TestGatherListener listener = container.getInstance(TestGatherListener.class);
+
+		Map<String, EventResult> results = new HashMap<>();
+		for (EventResult result : container.gatherEvent("query", 200, TimeUnit.MILLISECONDS, "q:").get(5, TimeUnit.SECONDS))
+		{
+			results.put(result.getMethod(), result);
+		}
+		Assertions.assertEquals(3, results.size());
+		String prefix = TestGatherListener.class.getName() + ".";
+		Assertions.assertEquals("q:users", results.get(prefix + "queryUsers").getValue());
+		Assertions.assertTrue(results.get(prefix + "queryOrders").getException() instanceof IllegalStateException);
+		Assertions.assertTrue(results.get(prefix + "querySlow").getException() instanceof TimeoutException);
+
+		listener.getReleased().countDown();
+		List<EventResult> completed = container.gatherEvent("query", 0, TimeUnit.MILLISECONDS, "r:").get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(2, completed.stream().filter(EventResult::isSuccess).count());
+		Assertions.assertTrue(container.gatherEvent("unknown", 0, TimeUnit.MILLISECONDS).get().isEmpty());
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testGatherEventSameMethodNames() throws Exception
+	{
+		WireableContainer container = WireableContext.create();
+		container.init(TestGatherListener.class.getPackage().getName());
+
+		Map<String, Object> results = new HashMap<>();
+		for (EventResult result : container.gatherEvent("lookup", 0, TimeUnit.MILLISECONDS, "l:").get(5, TimeUnit.SECONDS))
+		{
+			results.put(result.getMethod(), result.getValue());
+		}
+		Assertions.assertEquals(2, results.size());
+		Assertions.assertEquals("l:users", results.get(TestLookupUsers.class.getName() + ".onLookup"));
+		Assertions.assertEquals("l:orders", results.get(TestLookupOrders.class.getName() + ".onLookup"));
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testGatherEventDrop() throws Exception
+	{
+		WireableContainer container = WireableContext.create();
+		container.setEventThreads(1);
+		container.setEventQueueCapacity(1);
+		container.setEventRejectionPolicy(RejectionPolicy.DROP);
+		container.init(TestGatherListener.class.getPackage().getName());
+		TestGatherListener listener = container.getInstance(TestGatherListener.class);
+
+		container.fireEventAsync("block");
+		Assertions.assertTrue(listener.getStarted().await(5, TimeUnit.SECONDS));
+		CompletableFuture<List<EventResult>> future = container.gatherEvent("query", 0, TimeUnit.MILLISECONDS, "d:");
+		listener.getReleased().countDown();
+
+		List<EventResult> results = future.get(5, TimeUnit.SECONDS);
+		Assertions.assertEquals(3, results.size());
+		Assertions.assertEquals(2, results.stream().filter(r -> r.getException() instanceof RejectedExecutionException).count());
+		Assertions.assertEquals(2, container.getDroppedEvents());
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testConstructorInjection() throws WireableException
+	{
+		WireableContainer container = WireableContext.create();
+		container.init(TestConstructorA.class.getPackage().getName());
+
+		TestConstructorA constructorA = container.getInstance(TestConstructorA.class);
+		Assertions.assertTrue(constructorA.isCreated());
+		Assertions.assertSame(container.getInstance(TestConstructorB.class), constructorA.getConstructorB());
+		Assertions.assertEquals("C", constructorA.getConstructorB().getConstructorC().getName());
+	}
+
+	@Test
+	public void testConstructorCycle()
+	{
+		WireableContainer container = WireableContext.create();
+		WireableException e = Assertions.assertThrows(WireableException.class, () -> container.init(TestConstructorCycleA.class.getPackage().getName()));
+		Assertions.assertTrue(e.getCause().getMessage().startsWith("Cyclic constructor dependency"));
+	}
+
+	@Test
+	public void testGetInstances() throws WireableException
+	{
+		WireableContainer container = WireableContext.createAndInit(TestInterfaceA.class.getPackage().getName());
+
+		List<ITestInterface> instances = container.getInstances(ITestInterface.class);
+		Assertions.assertEquals(2, instances.size());
+		Assertions.assertTrue(instances.get(0) instanceof TestInterfaceA);
+		Assertions.assertTrue(instances.get(1) instanceof TestInterfaceB);
+		Assertions.assertSame(instances.get(0), container.getInstance(ITestInterface.class));
+		Assertions.assertTrue(container.getInstance(ITestInterface2.class) instanceof TestInterfaceB);
+		Assertions.assertEquals(0, container.getInstances(Runnable.class).size());
+	}
+
+	@Test
+	public void testWireObjectsPlan() throws WireableException
+	{
+		resetWireableContext();
+		WireableContext.init(TestWireableClass.class.getPackage().getName());
+
+		TestWireObjectsClass first = new TestWireObjectsClass();
+		TestWireObjectsClass second = new TestWireObjectsClass();
+		WireableContext.wireObjects(first);
+		WireableContext.wireObjects(second);
+		Assertions.assertSame(WireableContext.getInstance(TestWireableClass.class), first.getTest());
+		Assertions.assertSame(first.getTest(), second.getTest());
+
+		resetWireableContext();
+		WireableContext.init(TestWireableClass.class.getPackage().getName());
+
+		TestWireObjectsClass third = new TestWireObjectsClass();
+		WireableContext.wireObjects(third);
+		Assertions.assertSame(WireableContext.getInstance(TestWireableClass.class), third.getTest());
+		Assertions.assertNotSame(first.getTest(), third.getTest());
+	}
+
+	@Test
+	public void testLifecycleOrder() throws WireableException
+	{
+		TestLifecycleOrder.INVOKED.clear();
+		WireableContext.createAndInit(TestLifecycleOrder.class.getPackage().getName());
+
+		Assertions.assertEquals(Arrays.asList("create1", "create2", "startup1", "startupNormal", "startup2", "startupLow"), TestLifecycleOrder.INVOKED);
+	}
+
+	@Test
+	public void testStartupAsync() throws Exception
+	{
+		TestStartupA.latch = new CountDownLatch(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			WireableContainer container = WireableContext.create();
+			container.setStartupExecutor(executor);
+			CompletableFuture<Void> future = container.initAsync(TestStartupA.class.getPackage().getName());
+			future.get();
+
+			Assertions.assertSame(future, container.getStartupFuture());
+			Assertions.assertTrue(container.getInstance(TestStartupA.class).isHighBeforeNormal());
+			Assertions.assertTrue(container.getInstance(TestStartupA.class).isConcurrent());
+			Assertions.assertTrue(container.getInstance(TestStartupB.class).isConcurrent());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testStartupTimeout() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try
+		{
+			WireableContainer container = WireableContext.create();
+			container.setStartupExecutor(executor);
+			ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> container.initAsync(TestStartupTimeout.class.getPackage().getName()).get());
+			Assertions.assertTrue(e.getCause() instanceof WireableException);
+			Assertions.assertTrue(e.getCause().getMessage().contains(TestStartupTimeout.class.getName() + ".startupSlow timed out after 50 ms"));
+			Assertions.assertTrue(e.getCause().getMessage().contains(TestStartupFailing.class.getName() + ".startupFailing failed"));
+
+			WireableContainer container2 = WireableContext.create();
+			container2.setStartupExecutor(executor);
+			Assertions.assertThrows(WireableException.class, () -> container2.init(TestStartupTimeout.class.getPackage().getName()));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testEventExecutorDrop() throws Exception
+	{
+		TestEventExecutor.started = new CountDownLatch(1);
+		TestEventExecutor.released = new CountDownLatch(1);
+		TestEventExecutor.COUNT.set(0);
+		WireableContainer container = WireableContext.create();
+		container.setEventThreads(1);
+		container.setEventQueueCapacity(1);
+		container.setEventRejectionPolicy(RejectionPolicy.DROP);
+		container.init(TestEventExecutor.class.getPackage().getName());
+
+		Assertions.assertThrows(IllegalArgumentException.class, () -> container.setEventRejectionPolicy(null));
+		container.fireEventAsync("block");
+		Assertions.assertTrue(TestEventExecutor.started.await(5, TimeUnit.SECONDS));
+		Assertions.assertThrows(IllegalStateException.class, () -> container.setEventThreads(2));
+		for (int i = 0; i < 3; i++)
+		{
+			container.fireEventAsync("count");
+		}
+		TestEventExecutor.released.countDown();
+
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(1, TestEventExecutor.COUNT.get());
+		Assertions.assertEquals(2, container.getDroppedEvents());
+	}
+
+	@Test
+	public void testEventExecutorCallerRuns() throws Exception
+	{
+		TestEventExecutor.started = new CountDownLatch(1);
+		TestEventExecutor.released = new CountDownLatch(1);
+		TestEventExecutor.COUNT.set(0);
+		WireableContainer container = WireableContext.create();
+		container.setEventThreads(1);
+		container.setEventQueueCapacity(1);
+		container.setEventRejectionPolicy(RejectionPolicy.CALLER_RUNS);
+		container.init(TestEventExecutor.class.getPackage().getName());
+
+		container.fireEventAsync("block");
+		Assertions.assertTrue(TestEventExecutor.started.await(5, TimeUnit.SECONDS));
+		container.fireEventAsync("count");
+		container.fireEventAsync("count");
+		Assertions.assertEquals(1, TestEventExecutor.COUNT.get());
+		TestEventExecutor.released.countDown();
+
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(2, TestEventExecutor.COUNT.get());
+		Assertions.assertEquals(0, container.getDroppedEvents());
+	}
+
+	@Test
+	public void testEventExecutorVirtualThreads() throws Exception
+	{
+		TestEventExecutor.COUNT.set(0);
+		WireableContainer container = WireableContext.create();
+		container.setEventVirtualThreads(true);
+		container.init(TestEventExecutor.class.getPackage().getName());
+
+		for (int i = 0; i < 100; i++)
+		{
+			container.fireEventAsync("count");
+		}
+		Assertions.assertTrue(container.shutdown(5, TimeUnit.SECONDS));
+		Assertions.assertEquals(100, TestEventExecutor.COUNT.get());
+	}
 }
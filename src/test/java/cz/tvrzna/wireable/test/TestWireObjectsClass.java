@@ -32,4 +32,9 @@ public class TestWireObjectsClass
 	{
 		Assertions.assertTrue(test.testMethod());
 	}
+
+	public TestWireableClass getTest()
+	{
+		return test;
+	}
 }
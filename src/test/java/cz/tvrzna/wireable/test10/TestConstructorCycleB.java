@@ -0,0 +1,11 @@
+package cz.tvrzna.wireable.test10;
+
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestConstructorCycleB
+{
+	public TestConstructorCycleB(TestConstructorCycleA cycleA)
+	{
+	}
+}
@@ -0,0 +1,41 @@
+package cz.tvrzna.wireable.test11;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+
+@Wireable
+public class TestStartupA
+{
+	public static volatile CountDownLatch latch;
+
+	private boolean highBeforeNormal = false;
+	private boolean concurrent = false;
+
+	@OnStartup(priority = PriorityLevel.HIGH)
+	private void startupHigh() throws InterruptedException
+	{
+		Thread.sleep(20);
+		highBeforeNormal = latch.getCount() == 2;
+	}
+
+	@OnStartup(timeout = 5000)
+	private void startupNormal() throws InterruptedException
+	{
+		latch.countDown();
+		concurrent = latch.await(5, TimeUnit.SECONDS);
+	}
+
+	public boolean isHighBeforeNormal()
+	{
+		return highBeforeNormal;
+	}
+
+	public boolean isConcurrent()
+	{
+		return concurrent;
+	}
+}
@@ -0,0 +1,24 @@
+package cz.tvrzna.wireable.test11;
+
+import java.util.concurrent.TimeUnit;
+
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestStartupB
+{
+	private boolean concurrent = false;
+
+	@OnStartup
+	private void startupNormal() throws InterruptedException
+	{
+		TestStartupA.latch.countDown();
+		concurrent = TestStartupA.latch.await(5, TimeUnit.SECONDS);
+	}
+
+	public boolean isConcurrent()
+	{
+		return concurrent;
+	}
+}
@@ -0,0 +1,14 @@
+package cz.tvrzna.wireable.test12;
+
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestStartupFailing
+{
+	@OnStartup
+	private void startupFailing()
+	{
+		throw new IllegalStateException("Startup failed");
+	}
+}
@@ -0,0 +1,14 @@
+package cz.tvrzna.wireable.test12;
+
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestStartupTimeout
+{
+	@OnStartup(timeout = 50)
+	private void startupSlow() throws InterruptedException
+	{
+		Thread.sleep(500);
+	}
+}
@@ -0,0 +1,29 @@
+package cz.tvrzna.wireable.test13;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestEventExecutor
+{
+	public static volatile CountDownLatch started;
+	public static volatile CountDownLatch released;
+	public static final AtomicInteger COUNT = new AtomicInteger();
+
+	@OnEvent("block")
+	private void block() throws InterruptedException
+	{
+		started.countDown();
+		released.await(5, TimeUnit.SECONDS);
+	}
+
+	@OnEvent("count")
+	private void count()
+	{
+		COUNT.incrementAndGet();
+	}
+}
@@ -0,0 +1,5 @@
+package cz.tvrzna.wireable.test14;
+
+public class TestOrderEvent extends TestBaseEvent implements ITestTypedEvent
+{
+}
@@ -0,0 +1,48 @@
+package cz.tvrzna.wireable.test14;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestTypedListener
+{
+	private final List<String> events = new ArrayList<>();
+
+	@OnEvent
+	private void onBase(TestBaseEvent event)
+	{
+		events.add("base");
+	}
+
+	@OnEvent
+	private void onInterface(ITestTypedEvent event)
+	{
+		events.add("interface");
+	}
+
+	@OnEvent
+	private void onOrder(TestOrderEvent event)
+	{
+		events.add("order");
+	}
+
+	@OnEvent
+	private void onNumber(int number)
+	{
+		events.add("number " + number);
+	}
+
+	@OnEvent("order")
+	private void onNamed(TestOrderEvent event)
+	{
+		events.add("named");
+	}
+
+	public List<String> getEvents()
+	{
+		return events;
+	}
+}
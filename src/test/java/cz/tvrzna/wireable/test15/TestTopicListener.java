@@ -0,0 +1,42 @@
+package cz.tvrzna.wireable.test15;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestTopicListener
+{
+	private final List<String> events = new ArrayList<>();
+
+	@OnEvent("order.created")
+	private void onOrderCreated(String value)
+	{
+		events.add("created " + value);
+	}
+
+	@OnEvent("Order.*")
+	private void onOrder(String value)
+	{
+		events.add("order " + value);
+	}
+
+	@OnEvent("user.#")
+	private void onUser(String value)
+	{
+		events.add("user " + value);
+	}
+
+	@OnEvent("*.session.#")
+	private void onSession(String value)
+	{
+		events.add("session " + value);
+	}
+
+	public List<String> getEvents()
+	{
+		return events;
+	}
+}
@@ -0,0 +1,82 @@
+package cz.tvrzna.wireable.test16;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestBatchListener
+{
+	private final List<List<Object>> ticks = new CopyOnWriteArrayList<>();
+	private final List<List<Object>> invalidations = new CopyOnWriteArrayList<>();
+	private final CountDownLatch invalidated = new CountDownLatch(1);
+	private final List<String> prices = new CopyOnWriteArrayList<>();
+	private final CountDownLatch priced = new CountDownLatch(1);
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch released = new CountDownLatch(1);
+
+	@OnEvent(value = "tick", batchSize = 3)
+	private void onTicks(List<Object> batch)
+	{
+		ticks.add(batch);
+	}
+
+	@OnEvent(value = "invalidate", batchDelay = 50, coalesce = true)
+	private void onInvalidate(List<Object> batch)
+	{
+		invalidations.add(batch);
+		invalidated.countDown();
+	}
+
+	@OnEvent(value = "price", batchDelay = 20, coalesceKey = "symbol")
+	private void onPrices(List<TestPrice> batch)
+	{
+		prices.add(batch.toString());
+		priced.countDown();
+	}
+
+	@OnEvent("block")
+	private void onBlock() throws InterruptedException
+	{
+		started.countDown();
+		released.await();
+	}
+
+	public List<List<Object>> getTicks()
+	{
+		return ticks;
+	}
+
+	public List<List<Object>> getInvalidations()
+	{
+		return invalidations;
+	}
+
+	public CountDownLatch getInvalidated()
+	{
+		return invalidated;
+	}
+
+	public List<String> getPrices()
+	{
+		return prices;
+	}
+
+	public CountDownLatch getPriced()
+	{
+		return priced;
+	}
+
+	public CountDownLatch getStarted()
+	{
+		return started;
+	}
+
+	public CountDownLatch getReleased()
+	{
+		return released;
+	}
+}
@@ -0,0 +1,24 @@
+package cz.tvrzna.wireable.test16;
+
+public class TestPrice
+{
+	private final String symbol;
+	private final int value;
+
+	public TestPrice(String symbol, int value)
+	{
+		this.symbol = symbol;
+		this.value = value;
+	}
+
+	public String getSymbol()
+	{
+		return symbol;
+	}
+
+	@Override
+	public String toString()
+	{
+		return symbol + value;
+	}
+}
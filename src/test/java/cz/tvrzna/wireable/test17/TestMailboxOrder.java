@@ -0,0 +1,32 @@
+package cz.tvrzna.wireable.test17;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestMailboxOrder
+{
+	private final List<Integer> values = new CopyOnWriteArrayList<>();
+	private final CountDownLatch received = new CountDownLatch(100);
+
+	@OnEvent("mail")
+	private void onMail(Integer value)
+	{
+		values.add(value);
+		received.countDown();
+	}
+
+	public List<Integer> getValues()
+	{
+		return values;
+	}
+
+	public CountDownLatch getReceived()
+	{
+		return received;
+	}
+}
@@ -0,0 +1,33 @@
+package cz.tvrzna.wireable.test17;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestMailboxSlow
+{
+	private final List<Integer> values = new CopyOnWriteArrayList<>();
+	private final CountDownLatch released = new CountDownLatch(1);
+
+	@OnEvent("mail")
+	private void onMail(Integer value) throws InterruptedException
+	{
+		released.await(5, TimeUnit.SECONDS);
+		values.add(value);
+	}
+
+	public List<Integer> getValues()
+	{
+		return values;
+	}
+
+	public CountDownLatch getReleased()
+	{
+		return released;
+	}
+}
@@ -0,0 +1,46 @@
+package cz.tvrzna.wireable.test18;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestRingListener
+{
+	private final List<Integer> values = new ArrayList<>();
+	private final CountDownLatch received = new CountDownLatch(1000);
+
+	@OnEvent("ring")
+	private void onRing(Integer value, String ignored)
+	{
+		values.add(value);
+		received.countDown();
+	}
+
+	@OnEvent("ring")
+	private void onRingCount()
+	{
+	}
+
+	@OnEvent("ring")
+	private void onRingError(Integer value)
+	{
+		if (value == 500)
+		{
+			throw new AssertionError("Ring listener failed");
+		}
+	}
+
+	public List<Integer> getValues()
+	{
+		return values;
+	}
+
+	public CountDownLatch getReceived()
+	{
+		return received;
+	}
+}
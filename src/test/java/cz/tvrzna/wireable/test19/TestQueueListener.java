@@ -0,0 +1,41 @@
+package cz.tvrzna.wireable.test19;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestQueueListener
+{
+	private final List<Integer> values = new CopyOnWriteArrayList<>();
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch released = new CountDownLatch(1);
+
+	@OnEvent("queued")
+	@OnEvent("queuedBlock")
+	private void onQueued(Integer value) throws InterruptedException
+	{
+		started.countDown();
+		released.await(5, TimeUnit.SECONDS);
+		values.add(value);
+	}
+
+	public List<Integer> getValues()
+	{
+		return values;
+	}
+
+	public CountDownLatch getStarted()
+	{
+		return started;
+	}
+
+	public CountDownLatch getReleased()
+	{
+		return released;
+	}
+}
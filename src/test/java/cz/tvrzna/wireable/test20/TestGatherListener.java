@@ -0,0 +1,50 @@
+package cz.tvrzna.wireable.test20;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestGatherListener
+{
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch released = new CountDownLatch(1);
+
+	@OnEvent("query")
+	private String queryUsers(String prefix)
+	{
+		return prefix + "users";
+	}
+
+	@OnEvent("query")
+	private String queryOrders(String prefix)
+	{
+		throw new IllegalStateException("orders unavailable");
+	}
+
+	@OnEvent("query")
+	private String querySlow(String prefix) throws InterruptedException
+	{
+		released.await(5, TimeUnit.SECONDS);
+		return prefix + "slow";
+	}
+
+	@OnEvent("block")
+	private void block() throws InterruptedException
+	{
+		started.countDown();
+		released.await(5, TimeUnit.SECONDS);
+	}
+
+	public CountDownLatch getStarted()
+	{
+		return started;
+	}
+
+	public CountDownLatch getReleased()
+	{
+		return released;
+	}
+}
@@ -0,0 +1,14 @@
+package cz.tvrzna.wireable.test20;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestLookupOrders
+{
+	@OnEvent("lookup")
+	private String onLookup(String prefix)
+	{
+		return prefix + "orders";
+	}
+}
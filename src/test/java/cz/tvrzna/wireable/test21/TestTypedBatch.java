@@ -0,0 +1,15 @@
+package cz.tvrzna.wireable.test21;
+
+import java.util.List;
+
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestTypedBatch
+{
+	@OnEvent(batchSize = 10)
+	private void onValues(List<String> values)
+	{
+	}
+}
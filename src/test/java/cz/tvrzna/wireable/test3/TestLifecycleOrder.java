@@ -0,0 +1,38 @@
+package cz.tvrzna.wireable.test3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestLifecycleOrder
+{
+	public static final List<String> INVOKED = new ArrayList<>();
+
+	@OnCreate(order = 2)
+	private void createSecond()
+	{
+		INVOKED.add("create2");
+	}
+
+	@OnCreate(order = 1)
+	private void createFirst()
+	{
+		INVOKED.add("create1");
+	}
+
+	@OnStartup(order = 2)
+	private void startupSecond()
+	{
+		INVOKED.add("startup2");
+	}
+
+	@OnStartup(order = -1)
+	private void startupFirst()
+	{
+		INVOKED.add("startup1");
+	}
+}
@@ -0,0 +1,21 @@
+package cz.tvrzna.wireable.test3;
+
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+
+@Wireable(priority = PriorityLevel.HIGH)
+public class TestLifecycleOrder2
+{
+	@OnStartup(priority = PriorityLevel.LOW, order = -10)
+	private void startupLow()
+	{
+		TestLifecycleOrder.INVOKED.add("startupLow");
+	}
+
+	@OnStartup(order = 1)
+	private void startupNormal()
+	{
+		TestLifecycleOrder.INVOKED.add("startupNormal");
+	}
+}
@@ -0,0 +1,41 @@
+package cz.tvrzna.wireable.test6;
+
+import org.junit.jupiter.api.Assertions;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+
+@Wireable
+public class TestFactoryClass
+{
+	@Wired
+	TestFactoryClass2 factoryClass2;
+
+	private int createCount = 0;
+	private String lastEvent;
+
+	@OnCreate
+	void onCreate()
+	{
+		Assertions.assertNotNull(factoryClass2);
+		createCount++;
+	}
+
+	@OnEvent("factoryEvent")
+	void onEvent(String value, int number)
+	{
+		lastEvent = value + number;
+	}
+
+	public int getCreateCount()
+	{
+		return createCount;
+	}
+
+	public String getLastEvent()
+	{
+		return lastEvent;
+	}
+}
@@ -0,0 +1,26 @@
+package cz.tvrzna.wireable.test6;
+
+import cz.tvrzna.wireable.annotations.OnStartup;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+
+@Wireable
+public class TestFactoryClass2
+{
+	@Wired
+	TestFactoryClass factoryClass;
+
+	private boolean started = false;
+
+	@OnStartup(priority = PriorityLevel.HIGH)
+	public void onStartup()
+	{
+		started = factoryClass != null;
+	}
+
+	public boolean isStarted()
+	{
+		return started;
+	}
+}
@@ -0,0 +1,27 @@
+package cz.tvrzna.wireable.test7;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+import cz.tvrzna.wireable.enums.PriorityLevel;
+
+@Wireable(priority = PriorityLevel.HIGH)
+public class TestDependencyA
+{
+	public static final List<String> CREATED = new CopyOnWriteArrayList<>();
+
+	@Wired
+	private TestDependencyB dependencyB;
+
+	@OnCreate
+	private void onCreate()
+	{
+		if (dependencyB.isCreated())
+		{
+			CREATED.add("A");
+		}
+	}
+}
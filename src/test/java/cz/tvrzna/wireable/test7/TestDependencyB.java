@@ -0,0 +1,23 @@
+package cz.tvrzna.wireable.test7;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestDependencyB
+{
+	private volatile boolean created = false;
+
+	@OnCreate
+	private void onCreate() throws InterruptedException
+	{
+		Thread.sleep(50);
+		created = true;
+		TestDependencyA.CREATED.add("B");
+	}
+
+	public boolean isCreated()
+	{
+		return created;
+	}
+}
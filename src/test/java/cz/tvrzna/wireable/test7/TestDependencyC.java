@@ -0,0 +1,18 @@
+package cz.tvrzna.wireable.test7;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+
+@Wireable
+public class TestDependencyC
+{
+	@Wired
+	private TestDependencyD dependencyD;
+
+	@OnCreate
+	private void onCreate()
+	{
+		TestDependencyA.CREATED.add("C");
+	}
+}
@@ -0,0 +1,6 @@
+package cz.tvrzna.wireable.test8;
+
+public interface ITestLazy
+{
+	boolean isCreated();
+}
@@ -0,0 +1,51 @@
+package cz.tvrzna.wireable.test8;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.OnEvent;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+
+@Wireable(lazy = true)
+public class TestLazyClass implements ITestLazy
+{
+	public static final AtomicInteger INSTANCES = new AtomicInteger();
+
+	@Wired
+	private TestLazyUser lazyUser;
+
+	private boolean created = false;
+	private final List<String> events = new ArrayList<>();
+
+	public TestLazyClass()
+	{
+		INSTANCES.incrementAndGet();
+	}
+
+	@OnCreate
+	private void onCreate() throws InterruptedException
+	{
+		Thread.sleep(20);
+		created = lazyUser != null;
+	}
+
+	@OnEvent("lazyEvent")
+	private void onLazyEvent(String value)
+	{
+		events.add(value);
+	}
+
+	public List<String> getEvents()
+	{
+		return events;
+	}
+
+	@Override
+	public boolean isCreated()
+	{
+		return created;
+	}
+}
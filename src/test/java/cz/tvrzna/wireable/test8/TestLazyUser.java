@@ -0,0 +1,16 @@
+package cz.tvrzna.wireable.test8;
+
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+
+@Wireable
+public class TestLazyUser
+{
+	@Wired
+	private ITestLazy lazy;
+
+	public ITestLazy getLazy()
+	{
+		return lazy;
+	}
+}
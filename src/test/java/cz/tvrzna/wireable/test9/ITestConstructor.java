@@ -0,0 +1,6 @@
+package cz.tvrzna.wireable.test9;
+
+public interface ITestConstructor
+{
+	String getName();
+}
@@ -0,0 +1,32 @@
+package cz.tvrzna.wireable.test9;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestConstructorA
+{
+	private final TestConstructorB constructorB;
+	private boolean created = false;
+
+	public TestConstructorA(TestConstructorB constructorB)
+	{
+		this.constructorB = constructorB;
+	}
+
+	@OnCreate
+	private void onCreate()
+	{
+		created = constructorB.isCreated();
+	}
+
+	public TestConstructorB getConstructorB()
+	{
+		return constructorB;
+	}
+
+	public boolean isCreated()
+	{
+		return created;
+	}
+}
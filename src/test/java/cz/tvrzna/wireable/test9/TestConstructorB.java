@@ -0,0 +1,39 @@
+package cz.tvrzna.wireable.test9;
+
+import cz.tvrzna.wireable.annotations.OnCreate;
+import cz.tvrzna.wireable.annotations.Wireable;
+import cz.tvrzna.wireable.annotations.Wired;
+
+@Wireable
+public class TestConstructorB
+{
+	private final ITestConstructor constructorC;
+	private boolean created = false;
+
+	public TestConstructorB()
+	{
+		this(null);
+	}
+
+	@Wired
+	TestConstructorB(ITestConstructor constructorC)
+	{
+		this.constructorC = constructorC;
+	}
+
+	@OnCreate
+	private void onCreate()
+	{
+		created = constructorC != null;
+	}
+
+	public ITestConstructor getConstructorC()
+	{
+		return constructorC;
+	}
+
+	public boolean isCreated()
+	{
+		return created;
+	}
+}
@@ -0,0 +1,13 @@
+package cz.tvrzna.wireable.test9;
+
+import cz.tvrzna.wireable.annotations.Wireable;
+
+@Wireable
+public class TestConstructorC implements ITestConstructor
+{
+	@Override
+	public String getName()
+	{
+		return "C";
+	}
+}